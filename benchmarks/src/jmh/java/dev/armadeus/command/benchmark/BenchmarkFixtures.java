@@ -0,0 +1,62 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.CommandResult;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.Command;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Shared senders and commands used by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final CommandSender SENDER = new NoopSender("benchmark");
+
+    private BenchmarkFixtures() {
+    }
+
+    static Command command(String name, String format) {
+        return new NoopCommand(name, format);
+    }
+
+    static String[] split(String line) {
+        return line.isEmpty() ? new String[0] : line.split(" ");
+    }
+
+    static final class NoopCommand extends Command {
+
+        NoopCommand(String name, String format) {
+            super(name, format, "Benchmark command");
+        }
+
+        @Override
+        public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+        }
+    }
+
+    static final class NoopSender implements CommandSender {
+
+        private final String name;
+
+        NoopSender(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Future<CommandResult> runCommand(String command, String[] args) {
+            return CompletableFuture.completedFuture(CommandResult.OTHER);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.CommandBase;
+import dev.armadeus.command.CommandResult;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.execution.BoundedExecutionStrategy;
+import dev.armadeus.command.execution.ExecutionStrategy;
+import dev.armadeus.command.execution.RejectionPolicy;
+import dev.armadeus.command.execution.VirtualThreadExecutionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of handlers blocking for a millisecond, platform thread pool against virtual threads with the same
+ * concurrency limit. Virtual threads need Java 21, on older runtimes the virtual variant reports the fallback pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockingExecutionBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"platform", "virtual"})
+    public String strategy;
+
+    @Param({"64", "256"})
+    public int concurrency;
+
+    private CommandBase base;
+    private String[] args;
+    private Future<?>[] futures;
+
+    @Setup
+    public void setup() {
+        ExecutionStrategy executionStrategy;
+        if (strategy.equals("virtual"))
+            executionStrategy = VirtualThreadExecutionStrategy.orFallback(concurrency);
+        else
+            executionStrategy = new BoundedExecutionStrategy(concurrency, BATCH, RejectionPolicy.ABORT);
+        base = new CommandBase(executionStrategy);
+        base.registerCommands(new Command("lookup", "<user>", "Blocking lookup") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        args = new String[]{"someone"};
+        futures = new Future<?>[BATCH];
+    }
+
+    @TearDown
+    public void tearDown() {
+        base.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int blocking() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = base.execute(BenchmarkFixtures.SENDER, "lookup", args);
+        }
+        int succeeded = 0;
+        for (Future<?> future : futures) {
+            if (future.get() == CommandResult.SUCCESS)
+                succeeded++;
+        }
+        return succeeded;
+    }
+}
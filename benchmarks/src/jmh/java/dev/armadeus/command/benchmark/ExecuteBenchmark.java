@@ -0,0 +1,50 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.CommandBase;
+import dev.armadeus.command.CommandResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end cost of {@link CommandBase#execute}, including the executor hand-off, against
+ * {@link CommandBase#executeInline} on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecuteBenchmark {
+
+    private CommandBase base;
+    private String[] args;
+
+    @Setup
+    public void setup() {
+        base = new CommandBase();
+        base.registerCommands(BenchmarkFixtures.command("ban", "<user> {reason}"));
+        base.registerCommands(BenchmarkFixtures.command("ban", "list"));
+        base.registerCommands(BenchmarkFixtures.command("ping", ""));
+        args = BenchmarkFixtures.split("someone spamming in general");
+    }
+
+    @TearDown
+    public void tearDown() {
+        base.shutdown();
+    }
+
+    @Benchmark
+    public CommandResult execute() throws ExecutionException, InterruptedException {
+        return base.execute(BenchmarkFixtures.SENDER, "ban", args).get();
+    }
+
+    @Benchmark
+    public CommandResult executeInline() {
+        return base.executeInline(BenchmarkFixtures.SENDER, "ban", args);
+    }
+
+    @Benchmark
+    public CommandResult executeUnknown() throws ExecutionException, InterruptedException {
+        return base.execute(BenchmarkFixtures.SENDER, "unknown", args).get();
+    }
+}
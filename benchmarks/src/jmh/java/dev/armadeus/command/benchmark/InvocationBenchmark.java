@@ -0,0 +1,77 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.AnnotatedCommand;
+import dev.armadeus.command.command.Arg;
+import dev.armadeus.command.command.Cmd;
+import dev.armadeus.command.command.Command;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler invocation through {@link AnnotatedCommand}, with map and typed parameters, against a plain {@link Command}
+ * subclass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InvocationBenchmark {
+
+    private Command annotated;
+    private Command typed;
+    private Command plain;
+    private Map<String, String> args;
+    private Map<String, String> flags;
+    private long counter;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Holder holder = new Holder();
+        annotated = new AnnotatedCommand(Holder.class.getMethod("handle", CommandSender.class, Map.class, Map.class).getAnnotation(Cmd.class),
+                holder, Holder.class.getMethod("handle", CommandSender.class, Map.class, Map.class));
+        Method typedMethod = Holder.class.getMethod("typed", CommandSender.class, int.class);
+        typed = new AnnotatedCommand(typedMethod.getAnnotation(Cmd.class), holder, typedMethod);
+        plain = new Command("plain", "<value>", "Plain command") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+                counter += args.size();
+            }
+        };
+        args = Collections.singletonMap("value", "1");
+        flags = Collections.emptyMap();
+    }
+
+    @Benchmark
+    public long annotated() {
+        annotated.run(BenchmarkFixtures.SENDER, args, flags);
+        return counter;
+    }
+
+    @Benchmark
+    public long typed() {
+        typed.run(BenchmarkFixtures.SENDER, args, flags);
+        return counter;
+    }
+
+    @Benchmark
+    public long plain() {
+        plain.run(BenchmarkFixtures.SENDER, args, flags);
+        return counter;
+    }
+
+    public class Holder {
+        @Cmd(name = "annotated", format = "<value>", description = "Annotated command")
+        public void handle(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            counter += args.size();
+        }
+
+        @Cmd(name = "typed", format = "<value>", description = "Typed command")
+        public void typed(CommandSender sender, @Arg("value") int value) {
+            counter += value;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overload resolution with N overloads under one name, compiled trie against the per-command patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int overloads;
+
+    private List<Command> commands;
+    private CommandMatcher matcher;
+    private String[] args;
+    private String joined;
+
+    @Setup
+    public void setup() {
+        commands = new ArrayList<>();
+        for (int i = 0; i < overloads - 1; i++) {
+            commands.add(BenchmarkFixtures.command("perm", "sub" + i + " <user> <node>"));
+        }
+        commands.add(BenchmarkFixtures.command("perm", "<user> {nodes}"));
+        matcher = CommandMatcher.compile(commands);
+        args = BenchmarkFixtures.split("someone node.one node.two node.three");
+        joined = String.join(" ", args);
+    }
+
+    @Benchmark
+    public Command trie() {
+        return matcher.match(args);
+    }
+
+    @Benchmark
+    public Command pattern() {
+        String line = String.join(" ", args);
+        for (Command command : commands) {
+            if (command.getPattern().matcher(line).find())
+                return command;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Command patternPreJoined() {
+        for (Command command : commands) {
+            if (command.getPattern().matcher(joined).find())
+                return command;
+        }
+        return null;
+    }
+}
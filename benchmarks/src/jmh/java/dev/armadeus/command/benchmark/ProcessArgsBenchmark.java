@@ -0,0 +1,44 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.command.Command;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping tokenized arguments onto a command's format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProcessArgsBenchmark {
+
+    private Command single;
+    private Command rest;
+    private String[] singleArgs;
+    private String[] restArgs;
+
+    @Setup
+    public void setup() {
+        single = BenchmarkFixtures.command("give", "<User> <Item> [Amount]");
+        rest = BenchmarkFixtures.command("ban", "<User> {Reason}");
+        singleArgs = BenchmarkFixtures.split("someone diamond 64");
+        restArgs = BenchmarkFixtures.split("someone spamming in general chat again");
+    }
+
+    @Benchmark
+    public Map<String, String> single() {
+        return single.processArgs(singleArgs);
+    }
+
+    @Benchmark
+    public Map<String, String> rest() {
+        return rest.processArgs(restArgs);
+    }
+
+    @Benchmark
+    public String restRead() {
+        return rest.processArgs(restArgs).get("reason");
+    }
+}
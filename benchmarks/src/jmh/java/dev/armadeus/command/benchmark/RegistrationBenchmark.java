@@ -0,0 +1,55 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.CommandBase;
+import dev.armadeus.command.command.Command;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration of N commands into an empty {@link CommandBase}, one at a time and as a single batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class RegistrationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    private List<Command> commands;
+    private CommandBase base;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // A quarter of the names carry several overloads so overlap checks have same-name candidates
+            commands.add(BenchmarkFixtures.command("command" + (i / 4), "sub" + (i % 4) + " <target> [amount]"));
+        }
+        base = new CommandBase();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        base.shutdown();
+    }
+
+    @Benchmark
+    public CommandBase registerCommands() {
+        for (Command command : commands) {
+            base.registerCommands(command);
+        }
+        return base;
+    }
+
+    @Benchmark
+    public CommandBase registerAll() {
+        base.registerAll(commands);
+        return base;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.armadeus.command.benchmark;
+
+import dev.armadeus.command.ArgumentTokenizer;
+import dev.armadeus.command.CommandFlags;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argument and flag tokenizing with varying flag mixes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenizerBenchmark {
+
+    @Param({"none", "short", "long", "value", "mixed", "quoted"})
+    public String mix;
+
+    private String[] args;
+
+    @Setup
+    public void setup() {
+        switch (mix) {
+            case "none":
+                args = BenchmarkFixtures.split("someone spamming in general chat");
+                break;
+            case "short":
+                args = BenchmarkFixtures.split("someone -sf spamming -q");
+                break;
+            case "long":
+                args = BenchmarkFixtures.split("someone --silent spamming --force");
+                break;
+            case "value":
+                args = BenchmarkFixtures.split("someone --duration=7d spamming --channel=general");
+                break;
+            case "mixed":
+                args = BenchmarkFixtures.split("someone -sf --duration=7d \\-1 --force spamming");
+                break;
+            case "quoted":
+                args = BenchmarkFixtures.split("someone \"spamming in general\" --reason=\"repeat offender\"");
+                break;
+            default:
+                throw new IllegalArgumentException(mix);
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole bh) {
+        CommandFlags flags = new CommandFlags();
+        bh.consume(ArgumentTokenizer.tokenize(args, true, true, flags));
+        bh.consume(flags);
+    }
+}
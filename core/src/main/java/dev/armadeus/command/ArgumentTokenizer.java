@@ -0,0 +1,156 @@
+package dev.armadeus.command;
+
+import java.util.Arrays;
+
+/**
+ * Single pass scanner splitting raw arguments into positional arguments and flags by inspecting characters directly.
+ * <p>
+ * Recognised tokens:
+ * <ul>
+ *     <li>{@code -abc} records the short flags a, b and c.</li>
+ *     <li>{@code --force} records the flag force.</li>
+ *     <li>{@code --name=ted} records the flag name with the value ted.</li>
+ *     <li>{@code "multi word"} spanning several tokens is grouped into a single argument or flag value.</li>
+ *     <li>{@code \-1} escapes a leading dash so the token is kept as an argument.</li>
+ * </ul>
+ */
+public final class ArgumentTokenizer {
+
+    private static final String[] EMPTY = new String[0];
+
+    private ArgumentTokenizer() {
+    }
+
+    /**
+     * Tokenizes the raw arguments.
+     *
+     * @param arguments    the raw arguments
+     * @param processFlags whether flags should be extracted
+     * @param processQuotes whether quoted values spanning several tokens should be grouped
+     * @param flags        the map receiving the flags
+     *
+     * @return the positional arguments, the input array itself when nothing had to be rewritten
+     */
+    public static String[] tokenize(String[] arguments, boolean processFlags, boolean processQuotes, CommandFlags flags) {
+        String[] out = null;
+        int count = 0;
+        for (int i = 0; i < arguments.length; i++) {
+            String s = arguments[i];
+            String arg = s;
+            if (processQuotes && isQuoteStart(s, 0)) {
+                int end = findQuoteEnd(arguments, i, 1);
+                if (end >= 0) {
+                    arg = unquote(arguments, i, end, 0);
+                    i = end;
+                }
+            } else if (processFlags && s.length() > 1 && s.charAt(0) == '-') {
+                if (s.charAt(1) != '-') {
+                    if (isWord(s, 1, s.length())) {
+                        for (int c = 1; c < s.length(); c++) {
+                            flags.put(String.valueOf(s.charAt(c)), null);
+                        }
+                        arg = null;
+                    }
+                } else if (s.length() > 2) {
+                    int eq = s.indexOf('=', 2);
+                    if (eq < 0) {
+                        if (isWord(s, 2, s.length())) {
+                            flags.put(s.substring(2), null);
+                            arg = null;
+                        }
+                    } else if (eq > 2 && eq < s.length() - 1 && isWord(s, 2, eq)) {
+                        int valueStart = eq + 1;
+                        if (processQuotes && isQuoteStart(s, valueStart)) {
+                            int end = findQuoteEnd(arguments, i, valueStart + 1);
+                            if (end >= 0) {
+                                flags.put(s.substring(2, eq), unquote(arguments, i, end, valueStart));
+                                i = end;
+                                arg = null;
+                            }
+                        }
+                        if (arg != null && isNonBlank(s, valueStart)) {
+                            flags.put(s.substring(2, eq), s.substring(valueStart));
+                            arg = null;
+                        }
+                    }
+                }
+            } else if (s.length() > 1 && s.charAt(0) == '\\' && s.charAt(1) == '-') {
+                // Process flag escape
+                arg = s.replace("\\", "");
+            }
+
+            if (out == null && (arg != s || count != i)) {
+                out = new String[arguments.length];
+                System.arraycopy(arguments, 0, out, 0, count);
+            }
+            if (arg != null) {
+                if (out != null)
+                    out[count] = arg;
+                count++;
+            }
+        }
+        if (out == null)
+            return arguments;
+        if (count == 0)
+            return EMPTY;
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    private static boolean isQuoteStart(String s, int from) {
+        return s.length() > from && s.charAt(from) == '"';
+    }
+
+    /**
+     * Finds the token closing a quote opened in token {@code start}.
+     *
+     * @return the index of the closing token or -1 if the quote is never closed
+     */
+    private static int findQuoteEnd(String[] arguments, int start, int firstContent) {
+        String first = arguments[start];
+        if (first.length() > firstContent && first.charAt(first.length() - 1) == '"')
+            return start;
+        for (int i = start + 1; i < arguments.length; i++) {
+            String s = arguments[i];
+            if (!s.isEmpty() && s.charAt(s.length() - 1) == '"')
+                return i;
+        }
+        return -1;
+    }
+
+    private static String unquote(String[] arguments, int start, int end, int quoteIndex) {
+        String first = arguments[start];
+        if (start == end)
+            return first.substring(quoteIndex + 1, first.length() - 1);
+        int length = first.length() - quoteIndex - 1;
+        for (int i = start + 1; i <= end; i++) {
+            length += arguments[i].length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(length - 1);
+        sb.append(first, quoteIndex + 1, first.length());
+        for (int i = start + 1; i < end; i++) {
+            sb.append(' ').append(arguments[i]);
+        }
+        String last = arguments[end];
+        sb.append(' ').append(last, 0, last.length() - 1);
+        return sb.toString();
+    }
+
+    private static boolean isWord(String s, int from, int to) {
+        if (from >= to)
+            return false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isNonBlank(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (Character.isWhitespace(s.charAt(i)))
+                return false;
+        }
+        return from < s.length();
+    }
+}
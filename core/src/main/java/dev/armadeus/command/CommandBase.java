@@ -1,23 +1,50 @@
 package dev.armadeus.command;
 
+import dev.armadeus.command.argument.ArgumentConversionException;
+import dev.armadeus.command.argument.ArgumentConverters;
+import dev.armadeus.command.cache.CacheKey;
+import dev.armadeus.command.cache.CapturableSender;
+import dev.armadeus.command.cache.CapturedMessages;
+import dev.armadeus.command.cache.CommandCache;
 import dev.armadeus.command.command.AnnotatedCommand;
 import dev.armadeus.command.command.Cmd;
 import dev.armadeus.command.command.CmdAttribute;
+import dev.armadeus.command.command.CommandArguments;
 import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandMatcher;
+import dev.armadeus.command.command.CommandModule;
+import dev.armadeus.command.command.CommandRegistrar;
+import dev.armadeus.command.command.CommandSignature;
 import dev.armadeus.command.command.CommandTree;
+import dev.armadeus.command.event.CommandEventDispatcher;
 import dev.armadeus.command.event.CommandEventListener;
 import dev.armadeus.command.event.CommandExceptionEvent;
 import dev.armadeus.command.event.CommandPostProcessEvent;
 import dev.armadeus.command.event.CommandPreProcessEvent;
+import dev.armadeus.command.execution.BoundedExecutionStrategy;
+import dev.armadeus.command.execution.CommandTask;
+import dev.armadeus.command.execution.ExecutionStrategy;
+import dev.armadeus.command.execution.TimerWheel;
+import dev.armadeus.command.limit.CommandThrottle;
+import dev.armadeus.command.limit.CommandThrottledException;
+import dev.armadeus.command.metrics.CommandMetrics;
+import dev.armadeus.command.metrics.RegistrationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Created by NachtRaben on 2/4/2017.
@@ -25,24 +52,58 @@ import java.util.concurrent.TimeUnit;
 public class CommandBase {
 
     private static final Logger log = LoggerFactory.getLogger(CommandBase.class);
+    private static final ClassValue<CommandRegistrar<?>> REGISTRARS = new ClassValue<CommandRegistrar<?>>() {
+        @Override
+        protected CommandRegistrar<?> computeValue(Class<?> type) {
+            String name = CommandRegistrar.registrarName(type);
+            try {
+                Class<?> generated = Class.forName(name, true, type.getClassLoader());
+                if (!CommandRegistrar.class.isAssignableFrom(generated))
+                    return null;
+                return (CommandRegistrar<?>) generated.getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Failed to load " + name + ", falling back to reflection.", e);
+                return null;
+            }
+        }
+    };
 
-    private Map<String, List<Command>> commands;
-    private Map<String, List<Command>> aliases;
-    private ExecutorService executor;
+    private final Object registryLock = new Object();
+    private volatile CommandRegistry registry = CommandRegistry.EMPTY;
+    private final CommandCompleter completer = new CommandCompleter();
+    private final CommandSuggester suggester = new CommandSuggester();
+    private ExecutionStrategy executionStrategy;
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final CommandCache cache = new CommandCache();
+    private final ArgumentConverters converters = new ArgumentConverters();
+    private final List<RegistrationReport.Module> registrations = new CopyOnWriteArrayList<>();
+    private final LongAdder publishNanos = new LongAdder();
+    private ForkJoinPool registrationPool = ForkJoinPool.commonPool();
+    private final Map<String, ModuleHandle> modules = new LinkedHashMap<>();
+    private volatile long defaultTimeoutNanos = 0;
+    private volatile TimerWheel timer;
     private boolean processFlags = true;
+    private boolean processQuotes = true;
     public boolean debug = false;
 
-    private List<CommandEventListener> eventListeners;
+    private final CommandEventDispatcher events = new CommandEventDispatcher();
 
     /**
-     * Instantiates a new Command base.
+     * Instantiates a new Command base backed by a {@link BoundedExecutionStrategy} with default limits.
      */
     public CommandBase() {
-        commands = new HashMap<>();
-        aliases = new HashMap<>();
-        eventListeners = new ArrayList<>();
-        ThreadGroup group = new ThreadGroup("Command Threads");
-        executor = Executors.newCachedThreadPool(r -> new Thread(group, r, "CommandThread-" + group.activeCount()));
+        this(new BoundedExecutionStrategy());
+    }
+
+    /**
+     * Instantiates a new Command base.
+     *
+     * @param executionStrategy the strategy running submitted commands
+     */
+    public CommandBase(ExecutionStrategy executionStrategy) {
+        this.executionStrategy = executionStrategy;
     }
 
     /**
@@ -51,118 +112,388 @@ public class CommandBase {
      * @param object the object
      */
     public void registerCommands(Object object) {
-        if (object instanceof Command) {
-            Command command = (Command) object;
+        registerAll(Collections.singletonList(object));
+    }
 
-            Command overlap = checkForOverlaps(command);
-            if (overlap != null) {
-                log.error(String.format("Found an overlapping command. %s{%s} overlaps with previously registered command %s{%s}.", command.getName(), command.getFormat(), overlap.getName(), overlap.getFormat()));
-                return;
+    /**
+     * Registers a batch of {@link Command}s, {@link CommandTree}s and objects holding {@link Cmd} methods. Every
+     * command is built and checked for overlaps against the registry and the rest of the batch first, then all
+     * accepted commands are published in a single registry update.
+     *
+     * @param objects the objects
+     *
+     * @return the commands that were skipped because they overlap, empty if everything was registered
+     */
+    public List<CommandConflict> registerAll(Collection<?> objects) {
+        List<Command> commands = new ArrayList<>();
+        for (Object object : objects) {
+            long start = System.nanoTime();
+            int before = commands.size();
+            collectCommands(object, commands);
+            record(new RegistrationReport.Module(object.getClass().getName(), commands.size() - before,
+                    System.nanoTime() - start, registrar(object.getClass()) != null));
+        }
+        return timedPublish(Collections.emptyList(), commands);
+    }
+
+    /**
+     * Finds every {@link CommandModule} listed by the context class loader and registers them, see
+     * {@link #registerModules(Collection)}.
+     *
+     * @return the commands that were skipped because they overlap, empty if everything was registered
+     */
+    public List<CommandConflict> discoverModules() {
+        return discoverModules(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Finds every {@link CommandModule} listed by a class loader and registers them in order of their names, so the
+     * outcome of conflicts does not depend on classpath order.
+     *
+     * @param loader the class loader
+     *
+     * @return the commands that were skipped because they overlap, empty if everything was registered
+     */
+    public List<CommandConflict> discoverModules(ClassLoader loader) {
+        List<CommandModule> modules = new ArrayList<>();
+        for (CommandModule module : ServiceLoader.load(CommandModule.class, loader)) {
+            modules.add(module);
+        }
+        modules.sort(Comparator.comparing(CommandModule::getName).thenComparing(m -> m.getClass().getName()));
+        if (debug)
+            log.info("Discovered " + modules.size() + " command modules");
+        return registerModules(modules);
+    }
+
+    /**
+     * Builds the commands of every module in parallel on the {@link #setRegistrationPool(ForkJoinPool) registration
+     * pool}, then checks them for overlaps and publishes them in a single registry update, in the order the modules
+     * were given. Nothing is registered if any module fails to build. A module with the same name as one registered
+     * before replaces it, see {@link #reloadModule(CommandModule)}.
+     *
+     * @param modules the modules
+     *
+     * @return the commands that were skipped because they overlap, empty if everything was registered
+     *
+     * @throws CommandCreationException if a module produced an invalid command, the first failure in module order
+     * @throws IllegalArgumentException if two of the modules have the same name
+     */
+    public List<CommandConflict> registerModules(Collection<? extends CommandModule> modules) {
+        Set<String> names = new HashSet<>();
+        for (CommandModule module : modules) {
+            if (!names.add(module.getName()))
+                throw new IllegalArgumentException("Duplicate command module " + module.getName());
+        }
+        List<ForkJoinTask<CollectedModule>> tasks = new ArrayList<>(modules.size());
+        for (CommandModule module : modules) {
+            tasks.add(registrationPool.submit(() -> collectModule(module)));
+        }
+        List<CollectedModule> collected = new ArrayList<>(tasks.size());
+        RuntimeException failure = null;
+        for (ForkJoinTask<CollectedModule> task : tasks) {
+            try {
+                collected.add(task.join());
+            } catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
             }
+        }
+        if (failure != null)
+            throw failure;
 
-            command.setCommandBase(this);
-            List<Command> commands = this.commands.computeIfAbsent(command.getName(), list -> new ArrayList<>());
+        for (CollectedModule module : collected) {
+            record(module.report);
+        }
+        return swapModules(collected, new ArrayList<>());
+    }
 
-            commands.add(command);
-            for (String alias : command.getAliases()) {
-                List<Command> aliases = this.aliases.computeIfAbsent(alias, list -> new ArrayList<>());
-                // TODO: Warn about overlapping aliases.
-                if (aliases.contains(command))
-                    continue;
+    /**
+     * Builds the commands of a module off to the side, then replaces the commands of the registered module with the
+     * same name in a single registry update, so dispatch sees either the old or the new module and never a mix.
+     * Invocations already running on the old commands finish on them.
+     *
+     * @param module the module
+     *
+     * @return a future completing with the new commands skipped because they overlap, once every invocation of the
+     * replaced module has finished
+     *
+     * @throws CommandCreationException if the module produced an invalid command, the old module stays registered
+     */
+    public CompletableFuture<List<CommandConflict>> reloadModule(CommandModule module) {
+        CollectedModule collected = collectModule(module);
+        record(collected.report);
+        List<ModuleHandle> retired = new ArrayList<>();
+        List<CommandConflict> conflicts = swapModules(Collections.singletonList(collected), retired);
+        return drained(retired).thenApply(v -> conflicts);
+    }
+
+    /**
+     * Removes every command of a module in a single registry update.
+     *
+     * @param name the module name
+     *
+     * @return a future completing once every invocation of the module has finished, completed already if no such
+     * module is registered
+     */
+    public CompletableFuture<Void> unregisterModule(String name) {
+        ModuleHandle handle;
+        synchronized (registryLock) {
+            handle = modules.remove(name);
+            if (handle == null)
+                return CompletableFuture.completedFuture(null);
+            timedPublish(handle.getCommands(), Collections.emptyList());
+            handle.retire();
+        }
+        return handle.getDrained();
+    }
+
+    /**
+     * Gets a registered module.
+     *
+     * @param name the module name
+     *
+     * @return the module or null
+     */
+    public ModuleHandle getModule(String name) {
+        synchronized (registryLock) {
+            return modules.get(name);
+        }
+    }
+
+    /**
+     * Gets the registered modules.
+     *
+     * @return a copy of the modules keyed by name
+     */
+    public Map<String, ModuleHandle> getModules() {
+        synchronized (registryLock) {
+            return new LinkedHashMap<>(modules);
+        }
+    }
 
-                aliases.add(command);
+    private List<CommandConflict> swapModules(List<CollectedModule> collected, List<ModuleHandle> retired) {
+        synchronized (registryLock) {
+            List<Command> removed = new ArrayList<>();
+            List<Command> added = new ArrayList<>();
+            List<ModuleHandle> handles = new ArrayList<>(collected.size());
+            for (CollectedModule module : collected) {
+                ModuleHandle old = modules.get(module.report.getName());
+                if (old != null) {
+                    retired.add(old);
+                    removed.addAll(old.getCommands());
+                }
+                ModuleHandle handle = new ModuleHandle(module.report.getName(), module.commands);
+                for (Command command : module.commands) {
+                    command.setModule(handle);
+                }
+                handles.add(handle);
+                added.addAll(module.commands);
+            }
+            List<CommandConflict> conflicts = timedPublish(removed, added);
+            for (ModuleHandle handle : handles) {
+                modules.put(handle.getName(), handle);
+            }
+            for (ModuleHandle old : retired) {
+                old.retire();
+            }
+            return conflicts;
+        }
+    }
+
+    private static CompletableFuture<Void> drained(List<ModuleHandle> handles) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[handles.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = handles.get(i).getDrained();
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private CollectedModule collectModule(CommandModule module) {
+        long start = System.nanoTime();
+        List<Command> commands = new ArrayList<>();
+        boolean generated = true;
+        for (Object object : module.createCommands()) {
+            collectCommands(object, commands);
+            generated &= registrar(object.getClass()) != null;
+        }
+        return new CollectedModule(commands, new RegistrationReport.Module(module.getName(), commands.size(), System.nanoTime() - start, generated));
+    }
+
+    private void record(RegistrationReport.Module module) {
+        registrations.add(module);
+        if (debug)
+            log.info("Collected " + module);
+    }
+
+    private List<CommandConflict> timedPublish(List<Command> removed, List<Command> commands) {
+        long start = System.nanoTime();
+        List<CommandConflict> conflicts = publish(removed, commands);
+        publishNanos.add(System.nanoTime() - start);
+        return conflicts;
+    }
+
+    /**
+     * Sets the pool {@link CommandModule}s are built on, the common pool by default.
+     *
+     * @param registrationPool the pool
+     */
+    public void setRegistrationPool(ForkJoinPool registrationPool) {
+        this.registrationPool = Objects.requireNonNull(registrationPool);
+    }
+
+    /**
+     * Gets how long every registration so far took, per registered object.
+     *
+     * @return the report
+     */
+    public RegistrationReport getRegistrationReport() {
+        return new RegistrationReport(new ArrayList<>(registrations), publishNanos.sum());
+    }
+
+    /**
+     * Compiles the matchers of every registered name and alias in the background, so the first dispatch of each does
+     * not pay for it. Commands registered after the call are compiled on first dispatch as usual.
+     *
+     * @return a future completing once every matcher is compiled
+     */
+    public CompletableFuture<Void> warmUp() {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            CommandRegistry snapshot = registry;
+            int count = 0;
+            for (String label : snapshot.getCommands().keySet()) {
+                // Read the live registry so matchers land in the snapshot dispatch uses
+                if (registry.getMatcher(label) != null)
+                    count++;
+            }
+            for (String label : snapshot.getAliases().keySet()) {
+                if (registry.getMatcher(label) != null)
+                    count++;
             }
             if (debug)
-                log.info("Added command, " + command.toString());
+                log.info("Warmed up " + count + " matchers in " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) + "us");
+        });
+    }
+
+    private void collectCommands(Object object, List<Command> commands) {
+        if (object instanceof Command) {
+            commands.add((Command) object);
         } else if (object instanceof CommandTree) {
             CommandTree tree = (CommandTree) object;
             if (debug)
                 log.info("Registering CommandTree: " + tree.getClass().getSimpleName());
-            tree.registerChildren(this);
+            for (Command child : tree.initChildren()) {
+                collectCommands(child, commands);
+            }
         }
 
-        // Process any annotated commands
+        // Process any annotated commands, through the generated registrar when the holder was compiled with one
+        CommandRegistrar<Object> registrar = registrar(object.getClass());
+        if (registrar != null) {
+            commands.addAll(registrar.createCommands(object, converters));
+            return;
+        }
         for (Method method : object.getClass().getMethods()) {
             if (method.isAnnotationPresent(Cmd.class)) {
                 Cmd cmd = method.getAnnotation(Cmd.class);
-                AnnotatedCommand command = new AnnotatedCommand(cmd, object, method);
-                if (method.isAnnotationPresent(CmdAttribute.class)) {
-                    for (CmdAttribute attrib : method.getAnnotationsByType(CmdAttribute.class)) {
-                        command.setAttribute(attrib.name(), attrib.value());
-                    }
+                AnnotatedCommand command = new AnnotatedCommand(cmd, object, method, converters);
+                for (CmdAttribute attrib : method.getAnnotationsByType(CmdAttribute.class)) {
+                    command.setAttribute(attrib.name(), attrib.value());
                 }
+                commands.add(command);
+            }
+        }
+    }
 
-                Command overlap = checkForOverlaps(command);
+    @SuppressWarnings("unchecked")
+    private static CommandRegistrar<Object> registrar(Class<?> type) {
+        return (CommandRegistrar<Object>) REGISTRARS.get(type);
+    }
+
+    /**
+     * Removes and adds commands in a single registry update.
+     */
+    private List<CommandConflict> publish(List<Command> removed, List<Command> commands) {
+        List<CommandConflict> conflicts = new ArrayList<>();
+        List<Command> dropped = new ArrayList<>();
+        // Overloads share their name, so sync each label once
+        Set<String> labels = new LinkedHashSet<>();
+        synchronized (registryLock) {
+            CommandRegistry.Builder builder = registry.toBuilder();
+            for (Command command : removed) {
+                if (!registry.contains(command))
+                    continue;
+                builder.remove(command);
+                addLabels(command, labels);
+                dropped.add(command);
+            }
+            for (Command command : commands) {
+                Command overlap = checkForOverlaps(builder, command);
                 if (overlap != null) {
-                    log.error(String.format("Found an overlapping command. %s{%s} overlaps with previously registered command %s{%s}.", command.getName(), command.getFormat(), overlap.getName(), overlap.getFormat()));
+                    conflicts.add(new CommandConflict(command, overlap));
                     continue;
                 }
-
+                checkForAliasOverlaps(builder, command);
                 command.setCommandBase(this);
-                List<Command> commands = this.commands.computeIfAbsent(command.getName(), list -> new ArrayList<>());
-                // TODO: Command overlapping.
-
-                commands.add(command);
-                for (String alias : command.getAliases()) {
-                    List<Command> aliases = this.aliases.computeIfAbsent(alias, list -> new ArrayList<>());
-                    aliases.add(command);
-                }
+                builder.add(command);
+                addLabels(command, labels);
                 if (debug)
                     log.info("Added command, " + command.toString());
             }
+            registry = builder.build();
+            completer.sync(registry, labels);
+            suggester.sync(registry, labels);
         }
+        for (Command command : dropped) {
+            metrics.remove(command);
+            if (command.isCached())
+                cache.invalidate(command);
+        }
+        for (CommandConflict conflict : conflicts) {
+            log.error("Found an overlapping command. " + conflict + ".");
+        }
+        return conflicts;
     }
 
-    private Command checkForOverlaps(Command c) {
-        List<Command.CommandArg> cargs = c.getCmdArgs();
-        for (List<Command> commands : commands.values()) {
-            for (Command comm : commands) {
-                if (!c.getName().equalsIgnoreCase(comm.getName()))
-                    continue;
+    private static void addLabels(Command command, Collection<String> labels) {
+        labels.add(command.getName());
+        labels.addAll(command.getAliases());
+    }
 
-                boolean matches = true;
-                List<Command.CommandArg> commargs = comm.getCmdArgs();
-                if (cargs.size() == commargs.size()) {
-                    for (int i = 0; i < cargs.size(); i++) {
-                        Command.CommandArg carg = cargs.get(i);
-                        Command.CommandArg commarg = commargs.get(i);
-                        if (i == cargs.size() - 1) {
-                            if (!carg.isRest() && !carg.isRequired() && !commarg.isRequired() && !commarg.isRest())
-                                matches = false;
-                        } else if (!carg.equals(commarg)) {
-                            matches = false;
-                            break;
-                        }
-                    }
-                } else {
-                    List<Command.CommandArg> shorter = cargs.size() < commargs.size() ? cargs : commargs;
-                    List<Command.CommandArg> longer = shorter.equals(cargs) ? commargs : cargs;
-
-                    if (shorter.isEmpty() && longer.size() >= 1 && longer.get(0).isRequired()) {
-                        matches = false;
-                    } else {
-                        for (int i = 0; i < shorter.size(); i++) {
-                            Command.CommandArg shortest = shorter.get(i);
-                            Command.CommandArg longest = longer.get(i);
-                            Command.CommandArg longest2 = longer.get(i + 1);
-                            if (i == shorter.size() - 1) {
-                                matches = (shortest.isRequired() && longest.isRequired() && !longest2.isRequired()) || shortest.isRest();
-                            } else if (!shortest.equals(longest)) {
-                                matches = false;
-                                break;
-                            }
-                        }
-                    }
-                }
-                if (matches)
-                    return comm;
-            }
+    private Command checkForOverlaps(CommandRegistry.Builder builder, Command c) {
+        Map<CommandSignature, Command> overloads = builder.getOverloads(c.getName());
+        // An overload with the same normalized signature could never be reached
+        Command duplicate = overloads.get(c.getSignature());
+        if (duplicate != null)
+            return duplicate;
+        for (Command other : overloads.values()) {
+            if (c.getSignature().conflicts(other.getSignature()))
+                return other;
+            if (debug && c.getSignature().overlaps(other.getSignature()))
+                log.info(String.format("%s{%s} shares arguments with %s{%s}, the one registered first wins.", c.getName(), c.getFormat(), other.getName(), other.getFormat()));
         }
         return null;
     }
 
+    private void checkForAliasOverlaps(CommandRegistry.Builder builder, Command c) {
+        for (String alias : c.getAliases()) {
+            warnAliasOverlaps(builder, c, alias);
+        }
+        // The name of the new command can also shadow aliases registered before it
+        warnAliasOverlaps(builder, c, c.getName());
+    }
+
+    private void warnAliasOverlaps(CommandRegistry.Builder builder, Command c, String label) {
+        for (Command other : builder.getByLabel(label)) {
+            if (other == c || other.getName().equalsIgnoreCase(c.getName()))
+                continue;
+            if (c.getSignature().overlaps(other.getSignature()))
+                log.warn(String.format("Found an overlapping alias. %s of %s{%s} overlaps with previously registered command %s{%s}.", label, c.getName(), c.getFormat(), other.getName(), other.getFormat()));
+        }
+    }
+
     /**
-     * Execute future.
+     * Executes the command like {@link #executeAsync(CommandSender, String, String[])}.
      *
      * @param sender    the sender
      * @param command   the command
@@ -171,84 +502,120 @@ public class CommandBase {
      * @return the future
      */
     public Future<CommandResult> execute(final CommandSender sender, final String command, final String[] arguments) {
-        return executor.submit(() -> {
-            Map<String, String> mappedFlags = new HashMap<>();
-            ArrayList<String> processedArgs = new ArrayList<>();
-
-            filterArgsAndFlags(arguments, mappedFlags, processedArgs);
-
-            String[] args = new String[processedArgs.size()];
-            processedArgs.toArray(args);
-            Command canidate = getCommandMatch(sender, command, args);
-
-            if (canidate != null) {
-                for (Map.Entry<String, String> flags : mappedFlags.entrySet()) {
-                    if (canidate.getFlags().stream().noneMatch(flag -> flag.contains(flags.getKey()))) {
-                        CommandPostProcessEvent cpp = new CommandPostProcessEvent(sender, canidate, mappedFlags, mappedFlags, CommandResult.INVALID_FLAGS, new IllegalArgumentException("{ " + flags.getKey() + " } is not a valid flag for the command."));
-                        eventListeners.forEach(el -> el.onCommandPostProcess(cpp));
-                        return CommandResult.INVALID_FLAGS;
-                    }
-                }
-                Map<String, String> mappedArguments = canidate.processArgs(args);
-                CommandPreProcessEvent event = new CommandPreProcessEvent(sender, canidate, mappedArguments, mappedFlags);
-                eventListeners.forEach(el -> el.onCommandPreProcess(event));
-                if (!event.isCancelled()) {
-                    try {
-                        canidate.run(sender, mappedArguments, mappedFlags);
-                        CommandPostProcessEvent cpp = new CommandPostProcessEvent(sender, canidate, mappedArguments, mappedFlags, CommandResult.SUCCESS);
-                        eventListeners.forEach(el -> el.onCommandPostProcess(cpp));
-                        return CommandResult.SUCCESS;
-                    } catch (Exception e) {
-                        CommandExceptionEvent exceptionEvent = new CommandExceptionEvent(sender, canidate, e);
-                        eventListeners.forEach(el -> el.onCommandException(exceptionEvent));
-                        CommandPostProcessEvent cpp = new CommandPostProcessEvent(sender, canidate, mappedArguments, mappedFlags, CommandResult.EXCEPTION, e);
-                        eventListeners.forEach(el -> el.onCommandPostProcess(cpp));
-                        return CommandResult.EXCEPTION;
-                    }
-                } else {
-                    CommandPostProcessEvent cpp = new CommandPostProcessEvent(sender, canidate, mappedArguments, mappedFlags, CommandResult.CANCELLED);
-                    eventListeners.forEach(el -> el.onCommandPostProcess(cpp));
-                    return CommandResult.CANCELLED;
-                }
-            } else {
-                CommandPostProcessEvent cpp = new CommandPostProcessEvent(sender, null, null, null, CommandResult.UNKNOWN_COMMAND);
-                eventListeners.forEach(el -> el.onCommandPostProcess(cpp));
-                return CommandResult.UNKNOWN_COMMAND;
-            }
-        });
+        return executeAsync(sender, command, arguments);
     }
 
-    private void filterArgsAndFlags(String[] arguments, Map<String, String> flags, ArrayList<String> processedArgs) {
-        // TODO: Filter args/flags with "" as a single value
-        for (String s : arguments) {
-            if (processFlags && Command.flagsRegex.matcher(s).find()) {
-                for (char c : s.substring(1).toCharArray()) {
-                    flags.put(String.valueOf(c), null);
-                }
-            } else if (processFlags && Command.flagRegex.matcher(s).find()) {
-                flags.put(s.substring(2), null);
-            } else if (processFlags && Command.flagWithValue.matcher(s).find()) {
-                flags.put(s.substring(2, s.indexOf("=")), s.substring(s.indexOf("=") + 1));
+    /**
+     * Parses and matches the command on the calling thread, then runs it on the {@link ExecutionStrategy} unless the
+     * command is {@link Command#isInline() inline}. Unknown commands, invalid flags and throttled calls complete without
+     * ever reaching the executor.
+     * <p>
+     * Cancelling the returned future with {@code mayInterruptIfRunning} interrupts a running handler, a queued one never
+     * starts. The future then completes exceptionally with a {@link java.util.concurrent.CancellationException}, while
+     * metrics and post-process events record the invocation as {@link CommandResult#CANCELLED}. An interrupted handler
+     * may still be winding down when the future completes.
+     *
+     * @param sender    the sender
+     * @param command   the command
+     * @param arguments the arguments
+     *
+     * @return the future result
+     */
+    public CompletableFuture<CommandResult> executeAsync(final CommandSender sender, final String command, final String[] arguments) {
+        Invocation invocation;
+        try {
+            invocation = prepare(sender, command, arguments);
+        } catch (Throwable e) {
+            CompletableFuture<CommandResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        if (!invocation.future.isDone()) {
+            if (invocation.getCommand().isInline()) {
+                invocation.run();
             } else {
-                // Process flag escape
-                if (s.startsWith("\\-"))
-                    processedArgs.add(s.replace("\\", ""));
-                else
-                    processedArgs.add(s);
+                invocation.timed = true;
+                executionStrategy.submit(invocation);
             }
         }
+        return invocation.future;
     }
 
-    private Command getCommandMatch(CommandSender sender, String command, String[] arguments) {
-        List<Command> canidates = getCommand(command);
-        if (canidates != null) {
-            for (Command canidate : canidates) {
-                if (canidate.getPattern().matcher(arrayToString(arguments)).find()) {
-                    return canidate;
-                }
+    /**
+     * Parses, matches and runs the command on the calling thread.
+     *
+     * @param sender    the sender
+     * @param command   the command
+     * @param arguments the arguments
+     *
+     * @return the result
+     */
+    public CommandResult executeInline(final CommandSender sender, final String command, final String[] arguments) {
+        Invocation invocation = prepare(sender, command, arguments);
+        if (!invocation.future.isDone())
+            invocation.run();
+        return invocation.future.join();
+    }
+
+    private Invocation prepare(CommandSender sender, String command, String[] arguments) {
+        long started = System.nanoTime();
+        CommandFlags mappedFlags = new CommandFlags();
+        String[] args = ArgumentTokenizer.tokenize(arguments, processFlags, processQuotes, mappedFlags);
+        long parsed = System.nanoTime();
+        Command canidate = getCommandMatch(sender, command, args);
+        ModuleHandle module = canidate != null ? canidate.getModule() : null;
+        while (module != null && !module.enter()) {
+            // The module was swapped out and drained after we matched, match again against the new registry
+            canidate = getCommandMatch(sender, command, args);
+            module = canidate != null ? canidate.getModule() : null;
+        }
+        long matched = System.nanoTime();
+        Invocation invocation = new Invocation(sender, command, canidate, args, mappedFlags, started, parsed - started, matched - parsed);
+        invocation.module = module;
+        try {
+            screen(invocation, sender, command, canidate, mappedFlags, matched);
+        } catch (RuntimeException | Error e) {
+            invocation.release();
+            throw e;
+        }
+        return invocation;
+    }
+
+    /**
+     * Completes invocations that must not reach the handler: unknown commands, invalid flags and throttled calls.
+     */
+    private void screen(Invocation invocation, CommandSender sender, String command, Command canidate, CommandFlags mappedFlags, long matched) {
+        if (canidate == null) {
+            if (events.hasPostProcessListeners()) {
+                List<String> suggestions = registry.getCommand(command) == null ? suggest(command) : Collections.emptyList();
+                events.firePostProcess(new CommandPostProcessEvent(sender, null, null, null, CommandResult.UNKNOWN_COMMAND, null, command, suggestions));
+            }
+            invocation.complete(CommandResult.UNKNOWN_COMMAND);
+            return;
+        }
+        for (int i = 0; i < mappedFlags.size(); i++) {
+            String flag = mappedFlags.keyAt(i);
+            if (canidate.getFlags().stream().noneMatch(f -> f.contains(flag))) {
+                if (events.hasPostProcessListeners())
+                    events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedFlags, mappedFlags, CommandResult.INVALID_FLAGS, new IllegalArgumentException("{ " + flag + " } is not a valid flag for the command.")));
+                invocation.complete(CommandResult.INVALID_FLAGS);
+                return;
+            }
+        }
+        CommandThrottle throttle = canidate.getThrottle();
+        if (throttle != null) {
+            long wait = throttle.tryAcquire(sender, matched);
+            if (wait > 0) {
+                if (events.hasPostProcessListeners())
+                    events.firePostProcess(new CommandPostProcessEvent(sender, canidate, null, mappedFlags, CommandResult.THROTTLED, new CommandThrottledException(canidate, wait)));
+                invocation.complete(CommandResult.THROTTLED);
             }
         }
-        return null;
+    }
+
+    private Command getCommandMatch(CommandSender sender, String command, String[] arguments) {
+        CommandMatcher matcher = registry.getMatcher(command);
+        return matcher != null ? matcher.match(arguments) : null;
     }
 
     /**
@@ -257,7 +624,7 @@ public class CommandBase {
      * @param handler the handler
      */
     public void registerEventListener(CommandEventListener handler) {
-        eventListeners.add(handler);
+        events.register(handler);
     }
 
     /**
@@ -266,19 +633,26 @@ public class CommandBase {
      * @param listener the listener
      */
     public void unregisterEventListner(CommandEventListener listener) {
-        eventListeners.remove(listener);
+        events.unregister(listener);
     }
 
-    private String arrayToString(String[] args) {
-        if (args.length == 0) {
-            return "";
-        }
-        StringBuilder sb = new StringBuilder();
-        for (String s : args) {
-            sb.append(s).append(" ");
-        }
-        sb.replace(sb.length() - 1, sb.length(), "");
-        return sb.toString();
+    /**
+     * Enables or disables delivering post-process and exception events on a separate event thread, so slow listeners
+     * do not delay commands. Pre-process events are always delivered before the command runs.
+     *
+     * @param async whether to deliver asynchronously
+     */
+    public void setAsyncEvents(boolean async) {
+        events.setAsync(async);
+    }
+
+    /**
+     * Gets the dispatcher delivering command events.
+     *
+     * @return the dispatcher
+     */
+    public CommandEventDispatcher getEventDispatcher() {
+        return events;
     }
 
     /**
@@ -287,34 +661,47 @@ public class CommandBase {
      * @param command the command
      */
     public void removeCommand(Command command) {
-        List<Command> commands = this.commands.get(command.getName());
-        if (commands != null)
-            commands.remove(command);
-        for (String alias : command.getAliases()) {
-            List<Command> aliased = this.aliases.get(alias);
-            if (aliased != null)
-                aliased.remove(command);
-        }
+        removeCommands(Collections.singletonList(command));
+    }
+
+    /**
+     * Removes several commands in a single registry update, so dispatch never sees only some of them gone.
+     *
+     * @param commands the commands
+     */
+    public void removeCommands(Collection<? extends Command> commands) {
+        publish(new ArrayList<>(commands), Collections.emptyList());
+    }
+
+    /**
+     * Gets the current registry snapshot. The snapshot never changes, later registrations publish a new one.
+     *
+     * @return the registry
+     */
+    public CommandRegistry getRegistry() {
+        return registry;
     }
 
     /**
      * Gets commands.
      *
-     * @return the commands
+     * @return the unmodifiable commands of the current snapshot
      */
     public Map<String, List<Command>> getCommands() {
-        return new HashMap<>(commands);
+        return registry.getCommands();
     }
 
+    /**
+     * Gets aliases.
+     *
+     * @return the unmodifiable aliases of the current snapshot
+     */
     public Map<String, List<Command>> getAliases() {
-        return new HashMap<>(aliases);
+        return registry.getAliases();
     }
 
     public List<Command> getCommand(String command) {
-        List<Command> commands = this.commands.get(command);
-        if (commands == null)
-            commands = aliases.get(command);
-        return commands;
+        return registry.getCommand(command);
     }
 
     public boolean isProcessFlags() {
@@ -325,25 +712,448 @@ public class CommandBase {
         processFlags = b;
     }
 
+    public boolean isProcessQuotes() {
+        return processQuotes;
+    }
+
+    public void setProcessQuotes(boolean b) {
+        processQuotes = b;
+    }
+
     public void updateAliases(Command command, List<String> old, List<String> newaliases) {
-        for (String alias : old) {
-            List<Command> commands = this.aliases.get(alias);
-            if (commands != null)
-                commands.remove(command);
+        synchronized (registryLock) {
+            if (!registry.contains(command))
+                return;
+            registry = registry.toBuilder().removeAliases(command, old).addAliases(command, newaliases).build();
+            List<String> labels = new ArrayList<>(old);
+            labels.addAll(newaliases);
+            completer.sync(registry, labels);
+            suggester.sync(registry, labels);
         }
-        for (String alias : newaliases) {
-            List<Command> commands = this.aliases.computeIfAbsent(alias, list -> new ArrayList<>());
-            commands.add(command);
+    }
+
+    /**
+     * Suggests completions for the last token of a partial command line, see
+     * {@link CommandCompleter#complete(CommandRegistry, String, int)}.
+     *
+     * @param line the partial line without prefix
+     *
+     * @return up to {@link CommandCompleter#DEFAULT_LIMIT} suggestions
+     */
+    public List<String> complete(String line) {
+        return complete(line, CommandCompleter.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Suggests completions for the last token of a partial command line.
+     *
+     * @param line  the partial line without prefix
+     * @param limit the maximum number of suggestions
+     *
+     * @return the suggestions
+     */
+    public List<String> complete(String line, int limit) {
+        return completer.complete(registry, line, limit);
+    }
+
+    public CommandCompleter getCompleter() {
+        return completer;
+    }
+
+    /**
+     * Suggests registered names and aliases close to a label that matched nothing.
+     *
+     * @param label the label
+     *
+     * @return up to {@link CommandSuggester#DEFAULT_LIMIT} suggestions, nearest first
+     */
+    public List<String> suggest(String label) {
+        return suggester.suggest(label, CommandSuggester.DEFAULT_LIMIT);
+    }
+
+    public CommandSuggester getSuggester() {
+        return suggester;
+    }
+
+    /**
+     * Gets the per command counters and latency histograms recorded by this base.
+     *
+     * @return the metrics
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the cache holding responses of {@link Command#isCached() cached} commands.
+     *
+     * @return the cache
+     */
+    public CommandCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the converters used by typed {@link Cmd} parameters. Register custom converters before the commands
+     * using them.
+     *
+     * @return the converters
+     */
+    public ArgumentConverters getConverters() {
+        return converters;
+    }
+
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy;
+    }
+
+    /**
+     * Sets how long handlers run on the {@link ExecutionStrategy} may take before they are interrupted and the
+     * invocation completes with {@link CommandResult#TIMEOUT}, unless the command sets its own timeout. Inline runs are
+     * never interrupted.
+     *
+     * @param timeout the timeout, null or zero for none
+     */
+    public void setDefaultTimeout(Duration timeout) {
+        this.defaultTimeoutNanos = timeout != null ? Math.max(0, timeout.toNanos()) : 0;
+    }
+
+    /**
+     * Gets the default handler timeout.
+     *
+     * @return the timeout, zero if none
+     */
+    public Duration getDefaultTimeout() {
+        return Duration.ofNanos(defaultTimeoutNanos);
+    }
+
+    private TimerWheel timer() {
+        TimerWheel t = timer;
+        if (t == null) {
+            synchronized (this) {
+                t = timer;
+                if (t == null)
+                    timer = t = new TimerWheel();
+            }
         }
+        return t;
     }
 
     public void shutdown() {
-        executor.shutdown();
+        executionStrategy.shutdown();
         try {
-            executor.awaitTermination(10, TimeUnit.SECONDS);
+            executionStrategy.awaitTermination(10, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             log.warn("Failed to safely shutdown command executor.", e);
         }
+        events.shutdown();
+        TimerWheel t = timer;
+        if (t != null)
+            t.stop();
+    }
+
+    /**
+     * Future of an invocation, cancelling it also cancels the invocation.
+     */
+    private static final class InvocationFuture extends CompletableFuture<CommandResult> {
+
+        private final Invocation invocation;
+
+        private InvocationFuture(Invocation invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                invocation.cancelled(mayInterruptIfRunning);
+            return cancelled;
+        }
+    }
+
+    private static final class CollectedModule {
+
+        private final List<Command> commands;
+        private final RegistrationReport.Module report;
+
+        private CollectedModule(List<Command> commands, RegistrationReport.Module report) {
+            this.commands = commands;
+            this.report = report;
+        }
+    }
+
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int INTERRUPTING = 2;
+    private static final int STOPPED = 3;
+    private static final int DONE = 4;
+
+    private static final AtomicIntegerFieldUpdater<Invocation> STATE = AtomicIntegerFieldUpdater.newUpdater(Invocation.class, "state");
+    private static final AtomicIntegerFieldUpdater<Invocation> FINISHED = AtomicIntegerFieldUpdater.newUpdater(Invocation.class, "finished");
+    private static final AtomicReferenceFieldUpdater<Invocation, ModuleHandle> MODULE = AtomicReferenceFieldUpdater.newUpdater(Invocation.class, ModuleHandle.class, "module");
+
+    /**
+     * A single invocation. The handler phase moves through {@code IDLE -> RUNNING -> DONE}, a timeout or an interrupting
+     * cancel takes it from {@code RUNNING} through {@code INTERRUPTING} to {@code STOPPED} instead, and whichever side
+     * wins reports the result. {@code finished} makes sure the result is only recorded once.
+     * <p>
+     * A timeout or cancel may complete the future while the handler is still running, so the module handle is only
+     * released once the worker left the handler phase, or by whoever made sure the handler never starts.
+     */
+    private class Invocation extends CommandTask {
+
+        private final String[] args;
+        private final CommandFlags flags;
+        private final InvocationFuture future = new InvocationFuture(this);
+
+        private final long started;
+        private final long parseNanos;
+        private final long matchNanos;
+        private long queueNanos = -1;
+        private long runNanos = -1;
+        volatile ModuleHandle module;
+
+        private boolean timed;
+        private long timeoutNanos;
+        private boolean timedOut;
+        private Map<String, String> mappedArguments;
+        private long handlerStarted;
+        private Thread runner;
+        private TimerWheel.Timeout timeout;
+        volatile int state;
+        volatile int finished;
+
+        Invocation(CommandSender sender, String label, Command command, String[] args, CommandFlags flags, long started, long parseNanos, long matchNanos) {
+            super(sender, label, command);
+            this.args = args;
+            this.flags = flags;
+            this.started = started;
+            this.parseNanos = parseNanos;
+            this.matchNanos = matchNanos;
+        }
+
+        @Override
+        public void run() {
+            if (finished != 0) {
+                release(); // Cancelled while queued
+                return;
+            }
+            queueNanos = System.nanoTime() - getSubmitted();
+            try {
+                CommandResult result = dispatch();
+                if (result != null)
+                    finish(result);
+            } catch (Throwable e) {
+                if (FINISHED.compareAndSet(this, 0, 1))
+                    future.completeExceptionally(e);
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Runs the command and reports the result through events.
+         *
+         * @return the result, or null if a timeout or cancellation already reported it
+         */
+        private CommandResult dispatch() {
+            CommandSender sender = getSender();
+            Command canidate = getCommand();
+            CommandArguments mappedArguments = canidate.processArgs(args);
+            this.mappedArguments = mappedArguments;
+            boolean cancelled = false;
+            if (events.hasPreProcessListeners()) {
+                CommandPreProcessEvent event = new CommandPreProcessEvent(sender, canidate, mappedArguments, flags);
+                events.firePreProcess(event);
+                cancelled = event.isCancelled();
+            }
+            if (!cancelled) {
+                handlerStarted = System.nanoTime();
+                if (!arm())
+                    return null;
+                Throwable failure = null;
+                CapturedMessages captured = null;
+                try {
+                    if (canidate.isCached())
+                        captured = runCached(sender, canidate, mappedArguments, handlerStarted);
+                    else
+                        canidate.run(sender, mappedArguments, flags);
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                if (!disarm()) {
+                    if (timedOut && events.hasPostProcessListeners()) {
+                        TimeoutException e = new TimeoutException("Command " + canidate.getName() + " timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+                        events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedArguments, flags, CommandResult.TIMEOUT, e));
+                    }
+                    return null;
+                }
+                runNanos = System.nanoTime() - handlerStarted;
+                if (failure == null) {
+                    // Only a handler that ran to completion stored its output, an interrupted one may have cut it short
+                    if (captured != null)
+                        cache.put(captured.getKey(), captured.getMessages(), canidate.getCacheTtlNanos(), System.nanoTime());
+                    if (events.hasPostProcessListeners())
+                        events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedArguments, flags, CommandResult.SUCCESS));
+                    return CommandResult.SUCCESS;
+                } else if (failure instanceof ArgumentConversionException) {
+                    if (events.hasPostProcessListeners())
+                        events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedArguments, flags, CommandResult.INVALID_ARGUMENTS, failure));
+                    return CommandResult.INVALID_ARGUMENTS;
+                } else {
+                    if (events.hasExceptionListeners())
+                        events.fireException(new CommandExceptionEvent(sender, canidate, failure));
+                    if (events.hasPostProcessListeners())
+                        events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedArguments, flags, CommandResult.EXCEPTION, failure));
+                    return CommandResult.EXCEPTION;
+                }
+            } else {
+                if (events.hasPostProcessListeners())
+                    events.firePostProcess(new CommandPostProcessEvent(sender, canidate, mappedArguments, flags, CommandResult.CANCELLED));
+                return CommandResult.CANCELLED;
+            }
+        }
+
+        /**
+         * Enters the handler phase and starts the timeout, unless the invocation was cancelled.
+         */
+        private boolean arm() {
+            runner = Thread.currentThread();
+            if (!STATE.compareAndSet(this, IDLE, RUNNING))
+                return false;
+            if (timed) {
+                long nanos = getCommand().getTimeoutNanos();
+                if (nanos < 0)
+                    nanos = defaultTimeoutNanos;
+                if (nanos > 0) {
+                    timeoutNanos = nanos;
+                    timeout = timer().schedule(this::expire, nanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Leaves the handler phase.
+         *
+         * @return false if the handler was interrupted or the invocation cancelled, whose result was already reported
+         */
+        private boolean disarm() {
+            TimerWheel.Timeout t = timeout;
+            if (t != null)
+                t.cancel();
+            if (STATE.compareAndSet(this, RUNNING, DONE))
+                return finished == 0;
+            while (state == INTERRUPTING) {
+                Thread.onSpinWait();
+            }
+            // Clear the interrupt aimed at the handler so it does not leak into the next task on this thread
+            Thread.interrupted();
+            return false;
+        }
+
+        private boolean interrupt(boolean expired) {
+            if (!STATE.compareAndSet(this, RUNNING, INTERRUPTING))
+                return false;
+            timedOut = expired;
+            try {
+                runner.interrupt();
+            } finally {
+                state = STOPPED;
+            }
+            return true;
+        }
+
+        /**
+         * Runs on the timer thread once the handler exceeded its timeout. Only the state change and the interrupt happen
+         * there, completing the future runs its dependent stages and is handed to the common pool, the post-process
+         * event is fired by the worker once the handler returned.
+         */
+        private void expire() {
+            if (!interrupt(true))
+                return;
+            runNanos = System.nanoTime() - handlerStarted;
+            ForkJoinPool.commonPool().execute(() -> finish(CommandResult.TIMEOUT));
+        }
+
+        /**
+         * Called once the future was cancelled, interrupting the handler if asked to.
+         */
+        private void cancelled(boolean mayInterruptIfRunning) {
+            boolean neverRuns = STATE.compareAndSet(this, IDLE, STOPPED);
+            if (!neverRuns && mayInterruptIfRunning)
+                interrupt(false);
+            try {
+                if (events.hasPostProcessListeners())
+                    events.firePostProcess(new CommandPostProcessEvent(getSender(), getCommand(), mappedArguments, flags, CommandResult.CANCELLED));
+            } finally {
+                finish(CommandResult.CANCELLED);
+                if (neverRuns)
+                    release();
+            }
+        }
+
+        /**
+         * Replays the cached messages of an earlier invocation, or runs the command and records what it sends.
+         *
+         * @return the recorded messages, null on a hit or if the sender cannot record them
+         */
+        private CapturedMessages runCached(CommandSender sender, Command canidate, CommandArguments mappedArguments, long now) {
+            CacheKey key = cache.key(canidate, sender, mappedArguments, flags);
+            List<String> messages = cache.get(key, now);
+            if (messages != null) {
+                for (String message : messages) {
+                    sender.sendMessage(message);
+                }
+                return null;
+            }
+            if (!(sender instanceof CapturableSender)) {
+                canidate.run(sender, mappedArguments, flags);
+                return null;
+            }
+            CapturedMessages captured = new CapturedMessages(key);
+            canidate.run(((CapturableSender) sender).capture(captured), mappedArguments, flags);
+            return captured;
+        }
+
+        @Override
+        public void reject() {
+            try {
+                // The call never ran, so it must not count against the sender's limits
+                CommandThrottle throttle = getCommand().getThrottle();
+                if (throttle != null)
+                    throttle.refund(getSender());
+                if (events.hasPostProcessListeners())
+                    events.firePostProcess(new CommandPostProcessEvent(getSender(), getCommand(), null, flags, CommandResult.REJECTED));
+            } finally {
+                complete(CommandResult.REJECTED);
+            }
+        }
+
+        /**
+         * Completes an invocation whose handler never runs.
+         */
+        void complete(CommandResult result) {
+            finish(result);
+            release();
+        }
+
+        private void finish(CommandResult result) {
+            if (!FINISHED.compareAndSet(this, 0, 1))
+                return;
+            metrics.record(getCommand(), result, parseNanos, matchNanos, queueNanos, runNanos, System.nanoTime() - started);
+            future.complete(result);
+        }
+
+        /**
+         * Counts the invocation out of its module, only once the handler is known to be done or to never start.
+         */
+        private void release() {
+            ModuleHandle m = MODULE.getAndSet(this, null);
+            if (m != null)
+                m.exit();
+        }
     }
 
 }
@@ -0,0 +1,250 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prefix trie over the names and aliases of a {@link CommandRegistry}, used for tab completion.
+ * <p>
+ * The trie is updated in place for every label a registry write touches and is read without locking. Each node
+ * publishes its children as a single immutable sorted array pair, so readers always see a consistent node. Label
+ * suggestions are ranked in lexicographic order, so an exact match always comes first. Suggestions for later tokens
+ * come from the literal format tokens of the overloads registered under the label.
+ * <p>
+ * Completion is case sensitive like dispatch, so every suggestion is a label or token that dispatches as suggested,
+ * and labels differing only in case are separate entries.
+ */
+public class CommandCompleter {
+
+    /**
+     * Default maximum number of suggestions.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    private final Node root = new Node();
+    private volatile int size;
+
+    /**
+     * Brings the given labels in line with the registry, adding, updating or removing their entries.
+     *
+     * @param registry the registry just published
+     * @param labels   the names and aliases the write touched
+     */
+    synchronized void sync(CommandRegistry registry, Collection<String> labels) {
+        for (String label : labels) {
+            List<Command> commands = registry.getCommand(label);
+            if (commands == null || commands.isEmpty()) {
+                if (remove(root, label, 0))
+                    size--;
+                continue;
+            }
+            if (put(label, new Terminal(label)))
+                size++;
+        }
+    }
+
+    private boolean put(String key, Terminal terminal) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        boolean added = node.terminal == null;
+        node.terminal = terminal;
+        return added;
+    }
+
+    /**
+     * Removes the terminal of the key and prunes nodes left empty.
+     *
+     * @return true if a terminal was removed
+     */
+    private boolean remove(Node node, String key, int depth) {
+        if (depth == key.length()) {
+            boolean removed = node.terminal != null;
+            node.terminal = null;
+            return removed;
+        }
+        Node child = node.child(key.charAt(depth));
+        if (child == null)
+            return false;
+        boolean removed = remove(child, key, depth + 1);
+        if (child.terminal == null && child.children.keys.length == 0)
+            node.removeChild(key.charAt(depth));
+        return removed;
+    }
+
+    /**
+     * Gets the number of distinct labels.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Suggests names and aliases starting with the prefix.
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of suggestions
+     *
+     * @return the suggestions
+     */
+    public List<String> completeLabel(String prefix, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        if (limit <= 0)
+            return result;
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null)
+            return result;
+
+        collect(node, result, limit);
+        return result;
+    }
+
+    /**
+     * Walks the subtree in pre-order over sorted children, which visits labels in lexicographic order and stops as
+     * soon as enough were found, so the cost depends on the limit rather than the number of labels.
+     */
+    private static void collect(Node node, List<String> result, int limit) {
+        Terminal terminal = node.terminal;
+        if (terminal != null)
+            result.add(terminal.label);
+        for (Node child : node.children.nodes) {
+            if (result.size() >= limit)
+                return;
+            collect(child, result, limit);
+        }
+    }
+
+    /**
+     * Suggests completions for the last token of a partial command line. The first token completes to names and
+     * aliases, later tokens to the literal format tokens of the overloads whose earlier tokens fit what was typed.
+     *
+     * @param registry the registry to read overloads from
+     * @param line     the partial line without prefix, a trailing space starts a new token
+     * @param limit    the maximum number of suggestions
+     *
+     * @return the suggestions for the last token
+     */
+    public List<String> complete(CommandRegistry registry, String line, int limit) {
+        boolean newToken = !line.isEmpty() && Character.isWhitespace(line.charAt(line.length() - 1));
+        String trimmed = line.trim();
+        String[] tokens = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+        if (tokens.length == 0)
+            return newToken ? new ArrayList<>() : completeLabel("", limit);
+        if (tokens.length == 1 && !newToken)
+            return completeLabel(tokens[0], limit);
+
+        int position = tokens.length - (newToken ? 1 : 2);
+        String partial = newToken ? "" : tokens[tokens.length - 1];
+        Set<String> suggestions = new LinkedHashSet<>();
+        List<Command> overloads = registry.getCommand(tokens[0]);
+        if (overloads == null)
+            return new ArrayList<>();
+        for (Command command : overloads) {
+            List<Command.CommandArg> args = command.getCmdArgs();
+            if (position >= args.size() || !fits(args, tokens, position))
+                continue;
+            Command.CommandArg arg = args.get(position);
+            if (!arg.isDynamic() && arg.getName().startsWith(partial))
+                suggestions.add(arg.getName());
+        }
+        List<String> result = new ArrayList<>(suggestions);
+        result.sort(null);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private static boolean fits(List<Command.CommandArg> args, String[] tokens, int position) {
+        for (int i = 0; i < position; i++) {
+            Command.CommandArg arg = args.get(i);
+            if (arg.isRest())
+                return false;
+            if (!arg.isDynamic() && !arg.getName().equals(tokens[i + 1]))
+                return false;
+        }
+        return true;
+    }
+
+    private static final class Terminal {
+
+        private final String label;
+
+        private Terminal(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Children {
+
+        private static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        private final char[] keys;
+        private final Node[] nodes;
+
+        private Children(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+    }
+
+    private static final class Node {
+
+        private volatile Children children = Children.EMPTY;
+        private volatile Terminal terminal;
+
+        private Node child(char c) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.keys, c);
+            return index >= 0 ? current.nodes[index] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.keys, c);
+            if (index >= 0)
+                return current.nodes[index];
+            int insert = -index - 1;
+            int length = current.keys.length;
+            char[] keys = new char[length + 1];
+            Node[] nodes = new Node[length + 1];
+            System.arraycopy(current.keys, 0, keys, 0, insert);
+            System.arraycopy(current.nodes, 0, nodes, 0, insert);
+            System.arraycopy(current.keys, insert, keys, insert + 1, length - insert);
+            System.arraycopy(current.nodes, insert, nodes, insert + 1, length - insert);
+            Node node = new Node();
+            keys[insert] = c;
+            nodes[insert] = node;
+            children = new Children(keys, nodes);
+            return node;
+        }
+
+        private void removeChild(char c) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.keys, c);
+            if (index < 0)
+                return;
+            int length = current.keys.length;
+            if (length == 1) {
+                children = Children.EMPTY;
+                return;
+            }
+            char[] keys = new char[length - 1];
+            Node[] nodes = new Node[length - 1];
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            System.arraycopy(current.nodes, 0, nodes, 0, index);
+            System.arraycopy(current.keys, index + 1, keys, index, length - index - 1);
+            System.arraycopy(current.nodes, index + 1, nodes, index, length - index - 1);
+            children = new Children(keys, nodes);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+
+/**
+ * A command that could not be registered because it overlaps a command registered before it.
+ */
+public class CommandConflict {
+
+    private final Command command;
+    private final Command existing;
+
+    public CommandConflict(Command command, Command existing) {
+        this.command = command;
+        this.existing = existing;
+    }
+
+    /**
+     * Gets the command that was not registered.
+     *
+     * @return the command
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the command it overlaps with, either already registered or earlier in the same batch.
+     *
+     * @return the existing command
+     */
+    public Command getExisting() {
+        return existing;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{%s} overlaps with previously registered command %s{%s}", command.getName(), command.getFormat(), existing.getName(), existing.getFormat());
+    }
+}
@@ -16,6 +16,12 @@ public class CommandCreationException extends RuntimeException {
         this.message = message;
     }
 
+    public CommandCreationException(Command command, String message, Throwable cause) {
+        super(message, cause);
+        this.command = command;
+        this.message = message;
+    }
+
     public Command getCommand() {
         return command;
     }
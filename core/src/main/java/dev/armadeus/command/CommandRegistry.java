@@ -0,0 +1,270 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandMatcher;
+import dev.armadeus.command.command.CommandSignature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the commands and aliases registered with a {@link CommandBase}.
+ * <p>
+ * Readers use whichever snapshot they grabbed without locking, writers derive a new snapshot through a
+ * {@link Builder} and publish it in a single write. Matchers are compiled lazily per label and carried over to the
+ * next snapshot for every label the write did not touch.
+ */
+public final class CommandRegistry {
+
+    static final CommandRegistry EMPTY = new CommandRegistry(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), new ConcurrentHashMap<>());
+
+    private final Map<String, List<Command>> commands;
+    private final Map<String, List<Command>> aliases;
+    private final Map<String, List<Command>> labels;
+    private final Map<String, Map<CommandSignature, Command>> signatures;
+    private final ConcurrentHashMap<String, CommandMatcher> matchers;
+
+    private CommandRegistry(Map<String, List<Command>> commands, Map<String, List<Command>> aliases, Map<String, List<Command>> labels, Map<String, Map<CommandSignature, Command>> signatures, ConcurrentHashMap<String, CommandMatcher> matchers) {
+        this.commands = commands;
+        this.aliases = aliases;
+        this.labels = labels;
+        this.signatures = signatures;
+        this.matchers = matchers;
+    }
+
+    /**
+     * Folds a name or alias into the case insensitive key used by {@link #getByLabel(String)}.
+     *
+     * @param label the label
+     *
+     * @return the folded label
+     */
+    public static String fold(String label) {
+        return label.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets every command whose name or one of its aliases folds to the given label.
+     *
+     * @param label the label, folded or not
+     *
+     * @return the commands, possibly containing a command twice if several of its labels fold together
+     */
+    public List<Command> getByLabel(String label) {
+        List<Command> list = labels.get(fold(label));
+        return list != null ? list : Collections.emptyList();
+    }
+
+    /**
+     * Gets the commands keyed by name.
+     *
+     * @return the unmodifiable commands
+     */
+    public Map<String, List<Command>> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the commands keyed by alias.
+     *
+     * @return the unmodifiable aliases
+     */
+    public Map<String, List<Command>> getAliases() {
+        return aliases;
+    }
+
+    /**
+     * Gets the overloads registered under a name, or under an alias if no command has that name.
+     *
+     * @param label the name or alias
+     *
+     * @return the overloads or null
+     */
+    public List<Command> getCommand(String label) {
+        List<Command> list = commands.get(label);
+        if (list == null)
+            list = aliases.get(label);
+        return list;
+    }
+
+    /**
+     * Gets the compiled matcher for a label.
+     *
+     * @param label the name or alias
+     *
+     * @return the matcher or null if nothing is registered under the label
+     */
+    public CommandMatcher getMatcher(String label) {
+        CommandMatcher matcher = matchers.get(label);
+        if (matcher == null) {
+            List<Command> list = getCommand(label);
+            if (list == null || list.isEmpty())
+                return null;
+            matcher = CommandMatcher.compile(list);
+            CommandMatcher raced = matchers.putIfAbsent(label, matcher);
+            if (raced != null)
+                matcher = raced;
+        }
+        return matcher;
+    }
+
+    /**
+     * Checks whether the command instance is registered.
+     *
+     * @param command the command
+     *
+     * @return true if registered
+     */
+    public boolean contains(Command command) {
+        List<Command> list = commands.get(command.getName());
+        return list != null && list.contains(command);
+    }
+
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Mutable copy of a snapshot. Lists are only copied once the builder modifies them.
+     */
+    static final class Builder {
+
+        private final CommandRegistry base;
+        private final Map<String, List<Command>> commands;
+        private final Map<String, List<Command>> aliases;
+        private final Map<String, List<Command>> labels;
+        private final Map<String, Map<CommandSignature, Command>> signatures;
+        private final Set<String> changed = new HashSet<>();
+        private final Set<String> changedSignatures = new HashSet<>();
+
+        private Builder(CommandRegistry base) {
+            this.base = base;
+            this.commands = new HashMap<>(base.commands);
+            this.aliases = new HashMap<>(base.aliases);
+            this.labels = new HashMap<>(base.labels);
+            this.signatures = new HashMap<>(base.signatures);
+        }
+
+        List<Command> getByLabel(String label) {
+            List<Command> list = labels.get(fold(label));
+            return list != null ? list : Collections.emptyList();
+        }
+
+        /**
+         * Gets the overloads of a name, keyed by their signature in registration order.
+         *
+         * @param name the name, folded or not
+         *
+         * @return the overloads
+         */
+        Map<CommandSignature, Command> getOverloads(String name) {
+            Map<CommandSignature, Command> overloads = signatures.get(fold(name));
+            return overloads != null ? overloads : Collections.emptyMap();
+        }
+
+        Builder add(Command command) {
+            mutable(commands, command.getName()).add(command);
+            mutable(labels, fold(command.getName())).add(command);
+            mutableSignatures(fold(command.getName())).putIfAbsent(command.getSignature(), command);
+            addAliases(command, command.getAliases());
+            return this;
+        }
+
+        Builder remove(Command command) {
+            List<Command> list = commands.get(command.getName());
+            if (list != null && list.contains(command)) {
+                removeFrom(commands, command.getName(), command);
+                removeFrom(labels, fold(command.getName()), command);
+                String name = fold(command.getName());
+                if (getOverloads(name).get(command.getSignature()) == command) {
+                    Map<CommandSignature, Command> overloads = mutableSignatures(name);
+                    overloads.remove(command.getSignature());
+                    if (overloads.isEmpty())
+                        signatures.remove(name);
+                }
+            }
+            removeAliases(command, command.getAliases());
+            return this;
+        }
+
+        Builder addAliases(Command command, List<String> names) {
+            for (String alias : names) {
+                List<Command> list = aliases.get(alias);
+                if (list != null && list.contains(command))
+                    continue;
+                mutable(aliases, alias).add(command);
+                mutable(labels, fold(alias)).add(command);
+            }
+            return this;
+        }
+
+        Builder removeAliases(Command command, List<String> names) {
+            for (String alias : names) {
+                List<Command> list = aliases.get(alias);
+                if (list == null || !list.contains(command))
+                    continue;
+                removeFrom(aliases, alias, command);
+                removeFrom(labels, fold(alias), command);
+            }
+            return this;
+        }
+
+        private void removeFrom(Map<String, List<Command>> map, String key, Command command) {
+            List<Command> list = mutable(map, key);
+            list.remove(command);
+            if (list.isEmpty())
+                map.remove(key);
+        }
+
+        private List<Command> mutable(Map<String, List<Command>> map, String key) {
+            changed.add(key);
+            List<Command> list = map.get(key);
+            if (list instanceof ArrayList)
+                return list;
+            List<Command> copy = list == null ? new ArrayList<>(1) : new ArrayList<>(list);
+            map.put(key, copy);
+            return copy;
+        }
+
+        private Map<CommandSignature, Command> mutableSignatures(String name) {
+            Map<CommandSignature, Command> overloads = signatures.get(name);
+            if (overloads != null && changedSignatures.contains(name))
+                return overloads;
+            changedSignatures.add(name);
+            Map<CommandSignature, Command> copy = overloads == null ? new LinkedHashMap<>(2) : new LinkedHashMap<>(overloads);
+            signatures.put(name, copy);
+            return copy;
+        }
+
+        CommandRegistry build() {
+            if (changed.isEmpty())
+                return base;
+            ConcurrentHashMap<String, CommandMatcher> matchers = new ConcurrentHashMap<>(base.matchers);
+            for (String key : changed) {
+                matchers.remove(key);
+            }
+            for (String name : changedSignatures) {
+                Map<CommandSignature, Command> overloads = signatures.get(name);
+                if (overloads != null)
+                    signatures.put(name, Collections.unmodifiableMap(overloads));
+            }
+            return new CommandRegistry(freeze(commands), freeze(aliases), freeze(labels), Collections.unmodifiableMap(signatures), matchers);
+        }
+
+        private static Map<String, List<Command>> freeze(Map<String, List<Command>> map) {
+            for (Map.Entry<String, List<Command>> entry : map.entrySet()) {
+                if (entry.getValue() instanceof ArrayList)
+                    entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -7,6 +7,22 @@ public enum  CommandResult {
     INVALID_FLAGS,
     UNKNOWN_COMMAND,
     EXCEPTION,
-    CANCELLED, OTHER
+    CANCELLED, OTHER,
+    /**
+     * The command was not run because the executor could not accept it.
+     */
+    REJECTED,
+    /**
+     * The command was not run because the sender or command exceeded a rate limit or cooldown.
+     */
+    THROTTLED,
+    /**
+     * An argument or flag could not be converted to the type the handler expects.
+     */
+    INVALID_ARGUMENTS,
+    /**
+     * The handler did not finish within the timeout of the command and was interrupted.
+     */
+    TIMEOUT
 
 }
@@ -0,0 +1,279 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over the case folded names and aliases of a {@link CommandRegistry}, answering "did you mean" lookups
+ * without comparing against every label.
+ * <p>
+ * Like {@link CommandCompleter} it is synced for the labels each registry write touches and read without locking.
+ * Removed labels stay in the tree as tombstones so the metric structure remains intact, and the tree is rebuilt from
+ * the live labels once tombstones make up half of it.
+ */
+public class CommandSuggester {
+
+    /**
+     * Default maximum number of suggestions.
+     */
+    public static final int DEFAULT_LIMIT = 3;
+
+    private volatile Node root;
+    private int nodes;
+    private int tombstones;
+    private volatile int size;
+
+    /**
+     * Brings the given labels in line with the registry.
+     *
+     * @param registry the registry just published
+     * @param labels   the names and aliases the write touched
+     */
+    synchronized void sync(CommandRegistry registry, Collection<String> labels) {
+        for (String label : labels) {
+            String key = CommandRegistry.fold(label);
+            List<Command> commands = registry.getByLabel(key);
+            Node node = find(key);
+            if (commands.isEmpty()) {
+                if (node != null && node.label != null) {
+                    node.label = null;
+                    tombstones++;
+                    size--;
+                }
+            } else {
+                String display = display(commands, key);
+                if (node == null) {
+                    root = insert(root, new Node(key, display));
+                    nodes++;
+                    size++;
+                } else {
+                    if (node.label == null) {
+                        tombstones--;
+                        size++;
+                    }
+                    node.label = display;
+                }
+            }
+        }
+        if (tombstones > 16 && tombstones * 2 > nodes)
+            rebuild();
+    }
+
+    private static String display(List<Command> commands, String key) {
+        for (Command command : commands) {
+            if (CommandRegistry.fold(command.getName()).equals(key))
+                return command.getName();
+        }
+        for (String alias : commands.get(0).getAliases()) {
+            if (CommandRegistry.fold(alias).equals(key))
+                return alias;
+        }
+        return key;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        while (node != null) {
+            int d = distance(key, node.key);
+            if (d == 0)
+                return node;
+            node = node.child(d);
+        }
+        return null;
+    }
+
+    private static Node insert(Node root, Node created) {
+        if (root == null)
+            return created;
+        Node node = root;
+        for (;;) {
+            int d = distance(created.key, node.key);
+            Node child = node.child(d);
+            if (child == null) {
+                node.setChild(d, created);
+                return root;
+            }
+            node = child;
+        }
+    }
+
+    private void rebuild() {
+        List<Node> live = new ArrayList<>();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        if (root != null)
+            stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            String label = node.label;
+            if (label != null)
+                live.add(new Node(node.key, label));
+            for (Node child : node.children) {
+                if (child != null)
+                    stack.push(child);
+            }
+        }
+        // Build off to the side and publish the finished tree in one write
+        Node fresh = null;
+        for (Node node : live) {
+            fresh = insert(fresh, node);
+        }
+        root = fresh;
+        nodes = live.size();
+        tombstones = 0;
+    }
+
+    /**
+     * Gets the number of live labels.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Suggests the labels closest to a label that matched nothing, using a distance limit scaled to its length.
+     *
+     * @param label the label
+     * @param limit the maximum number of suggestions
+     *
+     * @return the suggestions, nearest first
+     */
+    public List<String> suggest(String label, int limit) {
+        return suggest(label, label.length() <= 4 ? 1 : 2, limit);
+    }
+
+    /**
+     * Suggests labels within an edit distance of a label.
+     *
+     * @param label       the label
+     * @param maxDistance the maximum Damerau-Levenshtein distance
+     * @param limit       the maximum number of suggestions
+     *
+     * @return the suggestions, nearest first then alphabetical
+     */
+    public List<String> suggest(String label, int maxDistance, int limit) {
+        List<Match> matches = new ArrayList<>();
+        Node start = root;
+        if (start == null || limit <= 0)
+            return new ArrayList<>();
+        String key = CommandRegistry.fold(label);
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            Node[] children = node.children;
+            int d = distance(node.key, key);
+            String found = node.label;
+            if (d <= maxDistance && found != null)
+                matches.add(new Match(found, d));
+            int to = Math.min(children.length - 1, d + maxDistance);
+            for (int i = Math.max(1, d - maxDistance); i <= to; i++) {
+                if (children[i] != null)
+                    stack.push(children[i]);
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match m) -> m.distance).thenComparing(m -> m.label, String.CASE_INSENSITIVE_ORDER));
+        List<String> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).label);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the Damerau-Levenshtein distance of two strings, where swapping two adjacent characters is a single edit
+     * like in {@code pnig}. Unlike the restricted optimal string alignment distance it is a metric, which the tree
+     * relies on to prune.
+     *
+     * @param a the first string
+     * @param b the second string
+     *
+     * @return the distance
+     */
+    static int distance(String a, String b) {
+        if (a.equals(b))
+            return 0;
+        int n = a.length();
+        int m = b.length();
+        if (n == 0)
+            return m;
+        if (m == 0)
+            return n;
+        // Shifted by one so row and column 0 can hold the sentinel the transposition case reads for unseen characters
+        int max = n + m;
+        int[][] d = new int[n + 2][m + 2];
+        d[0][0] = max;
+        for (int i = 0; i <= n; i++) {
+            d[i + 1][0] = max;
+            d[i + 1][1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j + 1] = max;
+            d[1][j + 1] = j;
+        }
+        Map<Character, Integer> lastRow = new HashMap<>();
+        for (int i = 1; i <= n; i++) {
+            char c = a.charAt(i - 1);
+            int lastColumn = 0;
+            for (int j = 1; j <= m; j++) {
+                char other = b.charAt(j - 1);
+                int k = lastRow.getOrDefault(other, 0);
+                int l = lastColumn;
+                int cost = 1;
+                if (c == other) {
+                    cost = 0;
+                    lastColumn = j;
+                }
+                int value = Math.min(Math.min(d[i][j] + cost, d[i + 1][j] + 1), d[i][j + 1] + 1);
+                d[i + 1][j + 1] = Math.min(value, d[k][l] + (i - k - 1) + 1 + (j - l - 1));
+            }
+            lastRow.put(c, i);
+        }
+        return d[n + 1][m + 1];
+    }
+
+    private static final class Match {
+
+        private final String label;
+        private final int distance;
+
+        private Match(String label, int distance) {
+            this.label = label;
+            this.distance = distance;
+        }
+    }
+
+    private static final class Node {
+
+        private static final Node[] NONE = new Node[0];
+
+        private final String key;
+        private volatile String label;
+        private volatile Node[] children = NONE;
+
+        private Node(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        private Node child(int distance) {
+            Node[] c = children;
+            return distance < c.length ? c[distance] : null;
+        }
+
+        private void setChild(int distance, Node node) {
+            Node[] copy = Arrays.copyOf(children, Math.max(children.length, distance + 1));
+            copy[distance] = node;
+            children = copy;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.armadeus.command;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the short durations used by command attributes, e.g. {@code 500ms}, {@code 10s}, {@code 5m}, {@code 2h} or
+ * {@code 1d}. A number without unit is read as milliseconds, a unit without number as one of that unit. ISO-8601
+ * durations such as {@code PT30S} are accepted as well.
+ */
+public final class Durations {
+
+    private Durations() {
+    }
+
+    /**
+     * Parses a duration.
+     *
+     * @param value the value
+     *
+     * @return the duration
+     *
+     * @throws IllegalArgumentException if the value is not a valid duration
+     */
+    public static Duration parse(String value) {
+        String s = value.trim();
+        if (s.isEmpty())
+            throw new IllegalArgumentException("Empty duration");
+        if (s.charAt(0) == 'P' || s.charAt(0) == 'p') {
+            try {
+                return Duration.parse(s);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid duration " + value, e);
+            }
+        }
+        int unitStart = 0;
+        while (unitStart < s.length() && Character.isDigit(s.charAt(unitStart))) {
+            unitStart++;
+        }
+        long amount;
+        try {
+            amount = unitStart == 0 ? 1 : Long.parseLong(s.substring(0, unitStart));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration " + value, e);
+        }
+        switch (s.substring(unitStart).trim().toLowerCase()) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+        }
+        throw new IllegalArgumentException("Invalid duration " + value);
+    }
+
+    /**
+     * Converts an attribute value, either a {@link Duration}, a number of milliseconds or a string accepted by
+     * {@link #parse(String)}.
+     *
+     * @param value the value
+     *
+     * @return the duration
+     */
+    public static Duration of(Object value) {
+        if (value instanceof Duration)
+            return (Duration) value;
+        if (value instanceof Number)
+            return Duration.ofMillis(((Number) value).longValue());
+        return parse(String.valueOf(value));
+    }
+}
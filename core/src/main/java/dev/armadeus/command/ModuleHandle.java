@@ -0,0 +1,102 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The commands a {@link dev.armadeus.command.command.CommandModule} registered with a {@link CommandBase}, and the
+ * invocations of them still in flight.
+ * <p>
+ * Once the module is reloaded or unregistered its handle is retired. Invocations that matched one of its commands
+ * before the swap still run to completion, and {@link #getDrained()} completes when the last one finishes. After that
+ * the handle refuses new invocations, so a dispatch that raced with the swap matches again against the new registry.
+ */
+public final class ModuleHandle {
+
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final String name;
+    private final List<Command> commands;
+    private final AtomicInteger state = new AtomicInteger();
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    ModuleHandle(String name, List<Command> commands) {
+        this.name = name;
+        this.commands = Collections.unmodifiableList(commands);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the commands the module produced, including any that were skipped as overlapping.
+     *
+     * @return the unmodifiable commands
+     */
+    public List<Command> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the number of invocations of the commands of this module that have not completed yet.
+     *
+     * @return the count
+     */
+    public int getInFlight() {
+        return state.get() & ~RETIRED;
+    }
+
+    /**
+     * Checks whether the module was replaced or unregistered.
+     *
+     * @return true if retired
+     */
+    public boolean isRetired() {
+        return (state.get() & RETIRED) != 0;
+    }
+
+    /**
+     * Gets a future completing once the module is retired and no invocation of it is in flight.
+     *
+     * @return the future
+     */
+    public CompletableFuture<Void> getDrained() {
+        return drained;
+    }
+
+    /**
+     * Counts an invocation in.
+     *
+     * @return false if the module is retired and already drained
+     */
+    boolean enter() {
+        for (;;) {
+            int s = state.get();
+            if (s == RETIRED)
+                return false;
+            if (state.compareAndSet(s, s + 1))
+                return true;
+        }
+    }
+
+    void exit() {
+        if (state.decrementAndGet() == RETIRED)
+            drained.complete(null);
+    }
+
+    void retire() {
+        int previous = state.getAndUpdate(s -> s | RETIRED);
+        if (previous == 0)
+            drained.complete(null);
+    }
+
+    @Override
+    public String toString() {
+        return "ModuleHandle{name=" + name + ", commands=" + commands.size() + ", inFlight=" + getInFlight() + ", retired=" + isRetired() + "}";
+    }
+}
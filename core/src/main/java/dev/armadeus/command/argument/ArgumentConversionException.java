@@ -0,0 +1,41 @@
+package dev.armadeus.command.argument;
+
+/**
+ * Thrown when the raw value of an argument or flag cannot be converted to the parameter type of the handler. The
+ * invocation completes with {@link dev.armadeus.command.CommandResult#INVALID_ARGUMENTS}.
+ */
+public class ArgumentConversionException extends RuntimeException {
+
+    private final String argument;
+    private final String value;
+    private final Class<?> type;
+
+    public ArgumentConversionException(String argument, String value, Class<?> type, Throwable cause) {
+        super("Invalid value '" + value + "' for " + argument + ", expected " + type.getSimpleName(), cause);
+        this.argument = argument;
+        this.value = value;
+        this.type = type;
+    }
+
+    /**
+     * Gets the name of the argument or flag.
+     *
+     * @return the name
+     */
+    public String getArgument() {
+        return argument;
+    }
+
+    /**
+     * Gets the raw value that failed to convert.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
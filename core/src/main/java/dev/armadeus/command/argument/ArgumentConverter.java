@@ -0,0 +1,25 @@
+package dev.armadeus.command.argument;
+
+import dev.armadeus.command.CommandSender;
+
+/**
+ * Converts the raw value of a format argument or flag into the type of a handler parameter.
+ *
+ * @param <T> the converted type
+ */
+@FunctionalInterface
+public interface ArgumentConverter<T> {
+
+    /**
+     * Converts a raw value.
+     *
+     * @param sender the sender, for converters depending on where the command was run
+     * @param value  the raw value, never null
+     *
+     * @return the converted value
+     *
+     * @throws Exception if the value is invalid, reported as an {@link ArgumentConversionException}
+     */
+    T convert(CommandSender sender, String value) throws Exception;
+
+}
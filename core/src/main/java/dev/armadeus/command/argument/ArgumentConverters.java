@@ -0,0 +1,142 @@
+package dev.armadeus.command.argument;
+
+import dev.armadeus.command.Durations;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converters available to typed {@link dev.armadeus.command.command.Cmd} parameters, looked up once when a command is
+ * registered.
+ * <p>
+ * Strings, primitives and their wrappers, {@link Duration}s (see {@link Durations}), {@link UUID}s and enums
+ * (case insensitive constant names) are supported out of the box.
+ */
+public class ArgumentConverters {
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class,
+            char.class, Character.class);
+
+    private final ConcurrentHashMap<Class<?>, ArgumentConverter<?>> converters = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a registry holding the default converters.
+     */
+    public ArgumentConverters() {
+        register(String.class, (sender, value) -> value);
+        register(Boolean.class, (sender, value) -> parseBoolean(value));
+        register(Byte.class, (sender, value) -> Byte.parseByte(value));
+        register(Short.class, (sender, value) -> Short.parseShort(value));
+        register(Integer.class, (sender, value) -> Integer.parseInt(value));
+        register(Long.class, (sender, value) -> Long.parseLong(value));
+        register(Float.class, (sender, value) -> Float.parseFloat(value));
+        register(Double.class, (sender, value) -> Double.parseDouble(value));
+        register(Character.class, (sender, value) -> {
+            if (value.length() != 1)
+                throw new IllegalArgumentException("Expected a single character");
+            return value.charAt(0);
+        });
+        register(Duration.class, (sender, value) -> Durations.parse(value));
+        register(UUID.class, (sender, value) -> UUID.fromString(value));
+    }
+
+    /**
+     * Registers or replaces the converter of a type. Primitive types share the converter of their wrapper.
+     * Commands registered before keep the converter they resolved.
+     *
+     * @param type      the type
+     * @param converter the converter
+     * @param <T>       the type
+     */
+    public <T> void register(Class<T> type, ArgumentConverter<? extends T> converter) {
+        converters.put(wrap(type), converter);
+    }
+
+    /**
+     * Gets the converter of a type.
+     *
+     * @param type the type
+     *
+     * @return the converter or null if the type is not supported
+     */
+    public ArgumentConverter<?> get(Class<?> type) {
+        Class<?> key = wrap(type);
+        ArgumentConverter<?> converter = converters.get(key);
+        if (converter == null && key.isEnum())
+            converter = converters.computeIfAbsent(key, ArgumentConverters::enumConverter);
+        return converter;
+    }
+
+    /**
+     * Gets the value of an absent optional argument or flag of the given type.
+     *
+     * @param type the type
+     *
+     * @return the default, null for reference types
+     */
+    public static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive())
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == float.class)
+            return 0f;
+        if (type == double.class)
+            return 0d;
+        if (type == long.class)
+            return 0L;
+        if (type == int.class)
+            return 0;
+        if (type == short.class)
+            return (short) 0;
+        return (byte) 0;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? WRAPPERS.get(type) : type;
+    }
+
+    private static boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "on":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "off":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Expected true or false");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentConverter<?> enumConverter(Class<?> type) {
+        Map<String, Enum> constants = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            constants.put(((Enum) constant).name().toLowerCase(Locale.ROOT), (Enum) constant);
+        }
+        return (sender, value) -> {
+            Enum constant = constants.get(value.toLowerCase(Locale.ROOT));
+            if (constant == null)
+                throw new IllegalArgumentException("Expected one of " + constants.keySet());
+            return constant;
+        };
+    }
+}
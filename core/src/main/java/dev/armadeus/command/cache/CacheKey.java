@@ -0,0 +1,139 @@
+package dev.armadeus.command.cache;
+
+import dev.armadeus.command.CommandFlags;
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandArguments;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Identifies a cached response by command, processed args, flags and optionally the sender. The args are kept in the
+ * slot order of the command and the flags as name and value pairs sorted by name, so handlers modifying their maps
+ * cannot corrupt the key and flag order does not matter.
+ */
+public final class CacheKey {
+
+    private static final String[] NONE = new String[0];
+
+    private final Command command;
+    private final Object sender;
+    private final String[] args;
+    private final String[] flags;
+    private final int hash;
+
+    public CacheKey(Command command, Object sender, CommandArguments args, CommandFlags flags) {
+        this.command = command;
+        this.sender = sender;
+        this.args = slots(args);
+        this.flags = pairs(flags);
+        this.hash = 31 * (31 * (31 * System.identityHashCode(command) + Objects.hashCode(sender)) + Arrays.hashCode(this.args)) + Arrays.hashCode(this.flags);
+    }
+
+    private static String[] slots(CommandArguments args) {
+        int count = args.getSlotCount();
+        if (count == 0)
+            return NONE;
+        String[] slots = new String[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = args.get(i);
+        }
+        return slots;
+    }
+
+    private static String[] pairs(CommandFlags flags) {
+        int size = flags.size();
+        if (size == 0)
+            return NONE;
+        String[] pairs = new String[size * 2];
+        for (int i = 0; i < size; i++) {
+            // Insertion sort, commands rarely receive more than a handful of flags
+            String name = flags.keyAt(i);
+            int j = i;
+            while (j > 0 && pairs[(j - 1) * 2].compareTo(name) > 0) {
+                pairs[j * 2] = pairs[(j - 1) * 2];
+                pairs[j * 2 + 1] = pairs[(j - 1) * 2 + 1];
+                j--;
+            }
+            pairs[j * 2] = name;
+            pairs[j * 2 + 1] = flags.valueAt(i);
+        }
+        return pairs;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the sender key.
+     *
+     * @return the sender name or null if the response is shared by all senders
+     */
+    public Object getSender() {
+        return sender;
+    }
+
+    /**
+     * Gets the value of a dynamic argument.
+     *
+     * @param name the argument name, case insensitive
+     *
+     * @return the value or null if the argument was not given
+     */
+    public String getArg(String name) {
+        int slot = command.getArgumentSlot(name);
+        return slot >= 0 && slot < args.length ? args[slot] : null;
+    }
+
+    /**
+     * Checks whether a flag was given.
+     *
+     * @param name the flag name
+     *
+     * @return true if given
+     */
+    public boolean hasFlag(String name) {
+        return indexOfFlag(name) >= 0;
+    }
+
+    /**
+     * Gets the value of a flag.
+     *
+     * @param name the flag name
+     *
+     * @return the value, null if the flag was not given or has no value
+     */
+    public String getFlag(String name) {
+        int i = indexOfFlag(name);
+        return i >= 0 ? flags[i + 1] : null;
+    }
+
+    private int indexOfFlag(String name) {
+        for (int i = 0; i < flags.length; i += 2) {
+            if (flags[i].equals(name))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof CacheKey))
+            return false;
+        CacheKey that = (CacheKey) o;
+        return hash == that.hash && command == that.command && Objects.equals(sender, that.sender) && Arrays.equals(args, that.args) && Arrays.equals(flags, that.flags);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheKey{" + command.getName() + ", sender=" + sender + ", args=" + Arrays.toString(args) + ", flags=" + Arrays.toString(flags) + "}";
+    }
+}
@@ -0,0 +1,25 @@
+package dev.armadeus.command.cache;
+
+import dev.armadeus.command.CommandSender;
+
+import java.util.function.Consumer;
+
+/**
+ * A sender able to record what it is sent, which responses of {@link dev.armadeus.command.command.CmdAttribute#CACHE
+ * cached} commands need to be stored. Any other sender is handed to the handler as is and its responses are not
+ * cached, cached responses are still replayed to it.
+ */
+public interface CapturableSender extends CommandSender {
+
+    /**
+     * Gets the sender handed to a cached handler in place of this one. It must deliver messages exactly like this
+     * sender and pass each of them to the recorder as well. Returning the platform type of this sender keeps handlers
+     * that cast their sender working.
+     *
+     * @param recorder the recorder of sent messages
+     *
+     * @return the recording sender
+     */
+    CommandSender capture(Consumer<String> recorder);
+
+}
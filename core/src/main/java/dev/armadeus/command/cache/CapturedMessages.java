@@ -0,0 +1,42 @@
+package dev.armadeus.command.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records the messages a cached handler sends through a {@link CapturableSender}, to be stored under its key once the
+ * invocation succeeded.
+ */
+public final class CapturedMessages implements Consumer<String> {
+
+    private final CacheKey key;
+    private final List<String> messages = new ArrayList<>(2);
+
+    public CapturedMessages(CacheKey key) {
+        this.key = key;
+    }
+
+    @Override
+    public void accept(String message) {
+        synchronized (messages) {
+            messages.add(message);
+        }
+    }
+
+    public CacheKey getKey() {
+        return key;
+    }
+
+    /**
+     * Gets a copy of the messages sent so far, null messages included so they replay as sent.
+     *
+     * @return the messages
+     */
+    public List<String> getMessages() {
+        synchronized (messages) {
+            return Collections.unmodifiableList(new ArrayList<>(messages));
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package dev.armadeus.command.cache;
+
+import dev.armadeus.command.CommandFlags;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandArguments;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Size bounded LRU cache of the messages sent by commands marked with
+ * {@link dev.armadeus.command.command.CmdAttribute#CACHE}. Entries expire after the TTL of their command and are
+ * evicted least recently used first once the cache is full.
+ * <p>
+ * Every command has its own region with its own lock, so lookups of different commands never contend. The size bound
+ * is shared, a full cache evicts from the region of the command inserting first.
+ */
+public class CommandCache {
+
+    /**
+     * Default maximum number of cached responses.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final ConcurrentHashMap<Command, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile int maximumSize;
+
+    /**
+     * Instantiates a cache holding up to {@link #DEFAULT_MAXIMUM_SIZE} responses.
+     */
+    public CommandCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Instantiates a new cache.
+     *
+     * @param maximumSize the maximum number of cached responses
+     */
+    public CommandCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Builds the key of an invocation.
+     *
+     * @param command the command
+     * @param sender  the sender
+     * @param args    the processed args
+     * @param flags   the flags
+     *
+     * @return the key
+     */
+    public CacheKey key(Command command, CommandSender sender, CommandArguments args, CommandFlags flags) {
+        return new CacheKey(command, command.isCachePerSender() && sender != null ? sender.getName() : null, args, flags);
+    }
+
+    /**
+     * Gets the live cached messages for a key, counting a hit or miss.
+     *
+     * @param key the key
+     * @param now the current {@link System#nanoTime()}
+     *
+     * @return the messages or null on a miss
+     */
+    public List<String> get(CacheKey key, long now) {
+        Region region = regions.get(key.getCommand());
+        Entry entry = null;
+        if (region != null) {
+            synchronized (region) {
+                entry = region.get(key);
+                if (entry != null && entry.expires - now <= 0) {
+                    region.remove(key);
+                    size.decrementAndGet();
+                    entry = null;
+                }
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.messages;
+    }
+
+    /**
+     * Caches the messages of a successful invocation.
+     *
+     * @param key      the key
+     * @param messages the messages
+     * @param ttlNanos the time to live
+     * @param now      the current {@link System#nanoTime()}
+     */
+    public void put(CacheKey key, List<String> messages, long ttlNanos, long now) {
+        Entry entry = new Entry(messages, now + ttlNanos);
+        for (;;) {
+            Region region = regions.computeIfAbsent(key.getCommand(), c -> new Region());
+            synchronized (region) {
+                if (region.dropped)
+                    continue; // Invalidated meanwhile, insert into its replacement
+                if (region.put(key, entry) == null)
+                    size.incrementAndGet();
+            }
+            trim(region);
+            return;
+        }
+    }
+
+    /**
+     * Evicts entries until the cache fits its maximum size, the region that just grew first.
+     */
+    private void trim(Region preferred) {
+        while (size.get() > maximumSize) {
+            if (evictEldest(preferred, 1))
+                continue;
+            boolean evicted = false;
+            for (Region region : regions.values()) {
+                if (evictEldest(region, 0)) {
+                    evicted = true;
+                    break;
+                }
+            }
+            if (!evicted)
+                return;
+        }
+    }
+
+    private boolean evictEldest(Region region, int keep) {
+        synchronized (region) {
+            if (region.size() <= keep)
+                return false;
+            Iterator<CacheKey> it = region.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        size.decrementAndGet();
+        evictions.increment();
+        return true;
+    }
+
+    /**
+     * Drops the cached responses of a command.
+     *
+     * @param command the command
+     */
+    public void invalidate(Command command) {
+        Region region = regions.remove(command);
+        if (region != null)
+            drop(region);
+    }
+
+    private void drop(Region region) {
+        synchronized (region) {
+            region.dropped = true;
+            size.addAndGet(-region.size());
+            region.clear();
+        }
+    }
+
+    /**
+     * Drops a single cached response.
+     *
+     * @param key the key
+     */
+    public void invalidate(CacheKey key) {
+        Region region = regions.get(key.getCommand());
+        if (region == null)
+            return;
+        synchronized (region) {
+            if (region.remove(key) != null)
+                size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Drops every cached response matching the predicate.
+     *
+     * @param predicate the predicate
+     */
+    public void invalidateIf(Predicate<CacheKey> predicate) {
+        for (Region region : regions.values()) {
+            synchronized (region) {
+                int before = region.size();
+                region.keySet().removeIf(predicate);
+                size.addAndGet(region.size() - before);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached response.
+     */
+    public void invalidateAll() {
+        for (Command command : regions.keySet()) {
+            invalidate(command);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of cached responses. Takes effect on the next insert.
+     *
+     * @param maximumSize the maximum size
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("maximumSize must be positive");
+        this.maximumSize = maximumSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups that were hits.
+     *
+     * @return the hit rate, 0 if nothing was looked up yet
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    private static final class Region extends LinkedHashMap<CacheKey, Entry> {
+
+        private boolean dropped;
+
+        private Region() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    private static final class Entry {
+
+        private final List<String> messages;
+        private final long expires;
+
+        private Entry(List<String> messages, long expires) {
+            this.messages = messages;
+            this.expires = expires;
+        }
+    }
+}
@@ -2,12 +2,13 @@ package dev.armadeus.command.command;
 
 import dev.armadeus.command.CommandCreationException;
 import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.argument.ArgumentConverters;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Created by NachtRaben on 3/7/2017.
@@ -17,10 +18,24 @@ public class AnnotatedCommand extends Command {
     private Cmd cmd;
     private Object methodHolder;
     private Method method;
+    private CommandInvoker invoker;
+    private ArgumentBinding binding;
 
     int size = 0;
 
     public AnnotatedCommand(Cmd cmd, Object methodHolder, Method method) throws CommandCreationException {
+        this(cmd, methodHolder, method, new ArgumentConverters());
+    }
+
+    /**
+     * Instantiates a new annotated command.
+     *
+     * @param cmd          the annotation
+     * @param methodHolder the object declaring the method
+     * @param method       the method
+     * @param converters   the converters used by {@link Arg} and {@link Flag} parameters
+     */
+    public AnnotatedCommand(Cmd cmd, Object methodHolder, Method method, ArgumentConverters converters) throws CommandCreationException {
         super(cmd.name(), cmd.format(), cmd.description());
         this.cmd = cmd;
         this.methodHolder = methodHolder;
@@ -28,7 +43,31 @@ public class AnnotatedCommand extends Command {
 
         setAliases(Arrays.asList(cmd.aliases()));
         setFlags(Arrays.asList(cmd.flags()));
-        validateMethod();
+        if (ArgumentBinding.isTyped(method)) {
+            binding = ArgumentBinding.compile(this, method, converters);
+            size = binding.size();
+            invoker = CommandInvokers.bindTyped(methodHolder, method, binding);
+        } else {
+            validateMethod();
+            invoker = CommandInvokers.bind(methodHolder, method, size);
+        }
+    }
+
+    /**
+     * Instantiates a command whose handler was bound at compile time, used by generated {@link CommandRegistrar}s.
+     *
+     * @param name        the name
+     * @param format      the format
+     * @param description the description
+     * @param aliases     the aliases
+     * @param flags       the flags
+     * @param invoker     creates the invoker once the format and flags of the command are known
+     */
+    public AnnotatedCommand(String name, String format, String description, String[] aliases, String[] flags, Function<AnnotatedCommand, CommandInvoker> invoker) throws CommandCreationException {
+        super(name, format, description);
+        setAliases(Arrays.asList(aliases));
+        setFlags(Arrays.asList(flags));
+        this.invoker = invoker.apply(this);
     }
 
     private void validateMethod() throws CommandCreationException {
@@ -81,31 +120,21 @@ public class AnnotatedCommand extends Command {
         }
     }
 
+    /**
+     * Gets the binding of typed parameters.
+     *
+     * @return the binding or null if the method takes maps
+     */
+    public ArgumentBinding getBinding() {
+        return binding;
+    }
+
     @Override
     public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
         try {
-            switch (size) {
-                case 4: {
-                    method.invoke(methodHolder, sender, args, flags, getAttributes());
-                    break;
-                }
-                case 3: {
-                    method.invoke(methodHolder, sender, args, flags);
-                    break;
-                }
-                case 2: {
-                    method.invoke(methodHolder, sender, args);
-                    break;
-                }
-                case 1: {
-                    method.invoke(methodHolder, sender);
-                    break;
-                }
-            }
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getCause());
+            invoker.invoke(sender, args, flags, getAttributes());
+        } catch (Throwable t) {
+            throw CommandInvokers.rethrow(t);
         }
     }
 }
@@ -0,0 +1,24 @@
+package dev.armadeus.command.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link Cmd} method parameter to a dynamic argument of the format, converted with the
+ * {@link dev.armadeus.command.argument.ArgumentConverters} of the command base. Optional arguments that were not
+ * given are bound as null, or the zero value for primitives.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Arg {
+
+    /**
+     * The name of the argument in the format, defaults to the parameter name when compiled with {@code -parameters}.
+     *
+     * @return the name
+     */
+    String value() default "";
+
+}
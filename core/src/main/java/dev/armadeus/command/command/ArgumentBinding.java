@@ -0,0 +1,208 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.CommandCreationException;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.argument.ArgumentConversionException;
+import dev.armadeus.command.argument.ArgumentConverter;
+import dev.armadeus.command.argument.ArgumentConverters;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+
+/**
+ * Flat plan binding the args and flags of an invocation to the typed parameters of a {@link Cmd} method. Keys,
+ * converters and defaults are resolved once at registration, binding only reads the maps and runs the converters.
+ * <p>
+ * Slot 0 is always the sender.
+ */
+public final class ArgumentBinding {
+
+    private final String[] names;
+    private final String[] keys;
+    private final int[] slots;
+    private final boolean[] flag;
+    private final boolean[] presence;
+    private final Class<?>[] types;
+    private final ArgumentConverter<?>[] converters;
+    private final Object[] absent;
+
+    private ArgumentBinding(int size) {
+        names = new String[size];
+        keys = new String[size];
+        slots = new int[size];
+        flag = new boolean[size];
+        presence = new boolean[size];
+        types = new Class<?>[size];
+        converters = new ArgumentConverter<?>[size];
+        absent = new Object[size];
+    }
+
+    /**
+     * Checks whether the method declares {@link Arg} or {@link Flag} parameters.
+     *
+     * @param method the method
+     *
+     * @return true if typed
+     */
+    public static boolean isTyped(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            if (parameter.isAnnotationPresent(Arg.class) || parameter.isAnnotationPresent(Flag.class))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the plan of a typed method.
+     *
+     * @param command    the command the method backs
+     * @param method     the method
+     * @param converters the converters
+     *
+     * @return the plan
+     *
+     * @throws CommandCreationException if a parameter does not match the format or flags, or has no converter
+     */
+    public static ArgumentBinding compile(Command command, Method method, ArgumentConverters converters) throws CommandCreationException {
+        Parameter[] parameters = method.getParameters();
+        if (parameters.length == 0 || !parameters[0].getType().equals(CommandSender.class))
+            throw new CommandCreationException(command, "Parameter[0] was not CommandSender.class.");
+
+        int size = parameters.length - 1;
+        String[] names = new String[size];
+        boolean[] flags = new boolean[size];
+        Class<?>[] types = new Class<?>[size];
+        for (int i = 1; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Arg arg = parameter.getAnnotation(Arg.class);
+            Flag flag = parameter.getAnnotation(Flag.class);
+            if ((arg == null) == (flag == null))
+                throw new CommandCreationException(command, "Parameter[" + i + "] must be annotated with either @Arg or @Flag.");
+
+            String name = arg != null ? arg.value() : flag.value();
+            if (name.isEmpty()) {
+                if (!parameter.isNamePresent())
+                    throw new CommandCreationException(command, "Parameter[" + i + "] has no name, compile with -parameters or name it in the annotation.");
+                name = parameter.getName();
+            }
+            names[i - 1] = name;
+            flags[i - 1] = flag != null;
+            types[i - 1] = parameter.getType();
+        }
+        return compile(command, names, flags, types, converters);
+    }
+
+    /**
+     * Resolves the plan of parameters described up front, used by generated {@link CommandRegistrar}s.
+     *
+     * @param command    the command the parameters belong to
+     * @param names      the argument or flag name of each parameter after the sender
+     * @param flags      whether each parameter binds a flag
+     * @param types      the type of each parameter
+     * @param converters the converters
+     *
+     * @return the plan
+     *
+     * @throws CommandCreationException if a parameter does not match the format or flags, or has no converter
+     */
+    public static ArgumentBinding compile(Command command, String[] names, boolean[] flags, Class<?>[] types, ArgumentConverters converters) throws CommandCreationException {
+        ArgumentBinding binding = new ArgumentBinding(names.length + 1);
+        for (int i = 1; i <= names.length; i++) {
+            String name = names[i - 1];
+            Class<?> type = types[i - 1];
+            binding.names[i] = name;
+            binding.types[i] = type;
+            binding.absent[i] = ArgumentConverters.defaultValue(type);
+
+            if (!flags[i - 1]) {
+                int slot = command.getArgumentSlot(name);
+                if (slot < 0)
+                    throw new CommandCreationException(command, "Parameter[" + i + "] binds to unknown argument " + name + ".");
+                binding.keys[i] = name.toLowerCase();
+                binding.slots[i] = slot;
+            } else {
+                if (!hasFlag(command, name))
+                    throw new CommandCreationException(command, "Parameter[" + i + "] binds to unknown flag " + name + ".");
+                binding.keys[i] = name;
+                binding.flag[i] = true;
+                binding.presence[i] = type == boolean.class;
+                if (binding.presence[i])
+                    continue;
+            }
+            ArgumentConverter<?> converter = converters.get(type);
+            if (converter == null)
+                throw new CommandCreationException(command, "Parameter[" + i + "] has no converter for " + type.getName() + ".");
+            binding.converters[i] = converter;
+        }
+        return binding;
+    }
+
+    private static boolean hasFlag(Command command, String name) {
+        for (Command.CommandFlag flag : command.getCommandFlags()) {
+            if (flag.name.equals(name))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of parameters including the sender.
+     *
+     * @return the size
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Binds an invocation. Arguments are read by slot when given the {@link CommandArguments} of the command.
+     *
+     * @param sender the sender
+     * @param args   the processed args
+     * @param flags  the flags
+     *
+     * @return the parameter values
+     *
+     * @throws ArgumentConversionException if a value cannot be converted
+     */
+    public Object[] bind(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+        Object[] values = new Object[keys.length];
+        values[0] = sender;
+        CommandArguments indexed = args instanceof CommandArguments ? (CommandArguments) args : null;
+        for (int i = 1; i < values.length; i++) {
+            if (presence[i]) {
+                values[i] = flags.containsKey(keys[i]);
+                continue;
+            }
+            String raw;
+            if (flag[i])
+                raw = flags.get(keys[i]);
+            else
+                raw = indexed != null ? indexed.get(slots[i]) : args.get(keys[i]);
+            if (raw == null) {
+                values[i] = absent[i];
+                continue;
+            }
+            try {
+                values[i] = converters[i].convert(sender, raw);
+            } catch (ArgumentConversionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ArgumentConversionException(names[i], raw, types[i], e);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ArgumentBinding{");
+        for (int i = 1; i < keys.length; i++) {
+            if (i > 1)
+                sb.append(", ");
+            sb.append(flag[i] ? "--" : "").append(names[i]).append(':').append(types[i].getSimpleName());
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -1,14 +1,58 @@
 package dev.armadeus.command.command;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
+@Repeatable(CmdAttributes.class)
 public @interface CmdAttribute {
 
+    /**
+     * Prefix of the attribute names the dispatcher interprets. Attributes without it are left to the command.
+     */
+    String PREFIX = "commands.";
+    /**
+     * Marks the command as cheap enough to run on the dispatching thread instead of the executor.
+     * Value is {@code true}/{@code false}, empty means true.
+     */
+    String INLINE = PREFIX + "inline";
+    /**
+     * Limits how often each sender may run the command, e.g. {@code 3/10s}.
+     */
+    String RATE_LIMIT = PREFIX + "rateLimit";
+    /**
+     * Limits how often the command may run across all senders, e.g. {@code 100/1m}.
+     */
+    String GLOBAL_RATE_LIMIT = PREFIX + "globalRateLimit";
+    /**
+     * Minimum time between two runs by the same sender, e.g. {@code 5s}.
+     */
+    String COOLDOWN = PREFIX + "cooldown";
+    /**
+     * Caches the messages the command sends for the given time, e.g. {@code 30s}. Only for commands whose output
+     * depends on nothing but their args and flags. Responses are recorded from
+     * {@link dev.armadeus.command.cache.CapturableSender}s only.
+     */
+    String CACHE = PREFIX + "cache";
+    /**
+     * Keys cached responses by sender as well. Value is {@code true}/{@code false}, empty means true.
+     */
+    String CACHE_PER_SENDER = PREFIX + "cachePerSender";
+    /**
+     * Interrupts the handler once it runs longer than the given time, e.g. {@code 30s}, overriding the default timeout
+     * of the command base. {@code 0} disables the timeout for the command.
+     */
+    String TIMEOUT = PREFIX + "timeout";
+    /**
+     * Priority class of the command, {@code high}, {@code normal} or {@code low}. Only a
+     * {@link dev.armadeus.command.execution.PriorityExecutionStrategy} acts on it.
+     */
+    String PRIORITY = PREFIX + "priority";
+
     String name();
 
 
@@ -0,0 +1,17 @@
+package dev.armadeus.command.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container allowing several {@link CmdAttribute}s on one method.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CmdAttributes {
+
+    CmdAttribute[] value();
+
+}
@@ -2,8 +2,14 @@ package dev.armadeus.command.command;
 
 import dev.armadeus.command.CommandBase;
 import dev.armadeus.command.CommandCreationException;
+import dev.armadeus.command.Durations;
+import dev.armadeus.command.ModuleHandle;
 import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.execution.CommandPriority;
+import dev.armadeus.command.limit.CommandThrottle;
+import dev.armadeus.command.limit.RateLimit;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -20,12 +26,18 @@ public abstract class Command {
     private List<String> flags;
     private Map<String, Object> attributes;
 
-    private List<CommandArg> commandArgs;
+    private final CommandFormat commandFormat;
     private List<CommandFlag> commandFlags;
 
-    private Pattern pattern;
-
     private CommandBase commandBase;
+    private volatile ModuleHandle module;
+
+    private boolean inline = false;
+    private volatile CommandThrottle throttle;
+    private long cacheTtlNanos = 0;
+    private boolean cachePerSender = false;
+    private long timeoutNanos = -1;
+    private CommandPriority priority = CommandPriority.NORMAL;
 
     public static final String requiredRegex = "\\S+";
     public static final String optionalRegex = "(\\s+\\S+)?";
@@ -63,86 +75,16 @@ public abstract class Command {
         flags = new ArrayList<>();
         attributes = new HashMap<>();
 
-        commandArgs = new ArrayList<>();
-        commandFlags = new ArrayList<>();
-        validateFormat();
-        buildPattern();
-        buildFlags();
-    }
-
-    private void validateFormat() throws CommandCreationException {
-        String[] tokens = format.split(" ");
-        tokens = Arrays.stream(tokens).filter(s -> (!s.isEmpty())).toArray(String[]::new);
-        if (tokens.length > 0 && tokens[0].equals(name)) {
-            tokens = Arrays.copyOfRange(tokens, 1, tokens.length);
-        }
-        if (tokens.length > 0) {
-            for (int i = 0; i < tokens.length; i++) {
-                String arg = tokens[i];
-                if (arg.charAt(0) == '<' && arg.charAt(arg.length() - 1) == '>') {
-                    commandArgs.add(i, new CommandArg(arg.substring(1, arg.length() - 1), true, true, false));
-                } else if (arg.charAt(0) == '[' && arg.charAt(arg.length() - 1) == ']') {
-                    commandArgs.add(i, new CommandArg(arg.substring(1, arg.length() - 1), true, false, false));
-                    if (i != tokens.length - 1) {
-                        throw new CommandCreationException(this, "[] statements can only be at the end of the format.");
-                    }
-                } else if (arg.charAt(0) == '{' && arg.charAt(arg.length() - 1) == '}') {
-                    commandArgs.add(i, new CommandArg(arg.substring(1, arg.length() - 1), true, true, true));
-                    if (i != tokens.length - 1) {
-                        throw new CommandCreationException(this, "{} statements can only be at the end of the format.");
-                    }
-                } else if (arg.charAt(0) == '(' && arg.charAt(arg.length() - 1) == ')') {
-                    commandArgs.add(i, new CommandArg(arg.substring(1, arg.length() - 1), true, false, true));
-                    if (i != tokens.length - 1) {
-                        throw new CommandCreationException(this, "() statements can only be at the end of the format.");
-                    }
-                } else {
-                    commandArgs.add(i, new CommandArg(arg, false, true, false));
-                }
-            }
-        }
-    }
-
-    private void buildPattern() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("^");
-        if (commandArgs.size() >= 1) {
-            for (int i = 0; i < commandArgs.size(); i++) {
-                CommandArg arg = commandArgs.get(i);
-                if (!arg.isRequired) {
-                    if (i == 0) {
-                        if (arg.isRest) {
-                            sb.append(firstOptionalRestRegex);
-                        } else {
-                            sb.append(firstOptionalRegex);
-                        }
-                    } else if (arg.isRest) {
-                        sb.append(optionalRestRegex);
-                    } else {
-                        sb.append(optionalRegex); // Process [] tag
-                    }
-                } else {
-                    if (i > 0) {
-                        sb.append("\\s+"); // Add space if not first tag
-                    }
-                    if (arg.isDynamic) {
-                        if (arg.isRest) {
-                            sb.append(restRegex); // Process {} tag
-                        } else {
-                            sb.append(requiredRegex); // Process <> tag
-                        }
-                    } else {
-                        sb.append(arg.name);
-                    }
-                }
-            }
+        commandFlags = Collections.emptyList();
+        try {
+            commandFormat = CommandFormat.of(name, format);
+        } catch (IllegalArgumentException e) {
+            throw new CommandCreationException(this, e.getMessage());
         }
-        sb.append("$");
-        pattern = Pattern.compile(sb.toString(), 0);
     }
 
     private void buildFlags() {
-        commandFlags = new ArrayList<>();
+        List<CommandFlag> commandFlags = new ArrayList<>();
         for (String s : flags) {
             if (flagsRegex.matcher(s).find()) {
                 for (char c : s.substring(1).toCharArray()) {
@@ -154,39 +96,36 @@ public abstract class Command {
                 commandFlags.add(new CommandFlag(s.substring(2, s.indexOf("=")), true));
             }
         }
+        this.commandFlags = commandFlags;
     }
 
     /**
      * Process args array into keymap of command arg and value.
      *
-     * @param args the args
+     * @param args the args matched against the format
      *
-     * @return the map
+     * @return a view of the args keyed by lowercased argument name
      */
-    public Map<String, String> processArgs(String[] args) {
-        Map<String, String> result = new HashMap<>();
-        for (int i = 0; i < args.length; i++) {
-            CommandArg cmdarg = commandArgs.get(i);
-            if (cmdarg.isDynamic) {
-                if (cmdarg.isRest) {
-                    result.put(cmdarg.name.toLowerCase(), arrayToString(Arrays.copyOfRange(args, i, args.length)));
-                    return result;
-                } else {
-                    result.put(cmdarg.name.toLowerCase(), args[i]);
-                }
-            }
-        }
-        return result;
+    public CommandArguments processArgs(String[] args) {
+        CommandFormat f = commandFormat;
+        return new CommandArguments(f.argKeys, f.argPositions, f.restLast, args);
     }
 
-    private String arrayToString(String[] args) {
-        if (args.length == 0) return "";
-        StringBuilder sb = new StringBuilder();
-        for (String s : args) {
-            sb.append(s).append(" ");
+    /**
+     * Gets the slot of a dynamic argument in the {@link CommandArguments} of this command.
+     *
+     * @param name the argument name, case insensitive
+     *
+     * @return the slot or -1 if the format has no such argument
+     */
+    public int getArgumentSlot(String name) {
+        String key = name.toLowerCase();
+        String[] argKeys = commandFormat.argKeys;
+        for (int i = 0; i < argKeys.length; i++) {
+            if (argKeys[i].equals(key))
+                return i;
         }
-        sb.replace(sb.length() - 1, sb.length(), "");
-        return sb.toString();
+        return -1;
     }
 
     /**
@@ -311,9 +250,13 @@ public abstract class Command {
      * Sets attributes.
      *
      * @param attributes the attributes
+     *
+     * @throws CommandCreationException if the value of a known attribute cannot be parsed
      */
     public void setAttributes(Map<String, Object> attributes) {
         this.attributes = attributes;
+        resetAttributes();
+        attributes.forEach(this::applyAttribute);
     }
 
 
@@ -322,18 +265,199 @@ public abstract class Command {
      *
      * @param identifier the identifier
      * @param value      the value
+     *
+     * @throws CommandCreationException if the value of a known attribute cannot be parsed, the attribute is not set
      */
     public void setAttribute(String identifier, Object value) {
+        applyAttribute(identifier, value);
         this.attributes.put(identifier, value);
     }
 
     /**
-     * Gets pattern.
+     * Applies attributes the dispatcher understands, see the constants on {@link CmdAttribute}. Names outside of
+     * {@link CmdAttribute#PREFIX} are ignored.
+     *
+     * @param identifier the identifier
+     * @param value      the value
+     *
+     * @throws CommandCreationException if the value of a known attribute cannot be parsed
+     */
+    protected void applyAttribute(String identifier, Object value) throws CommandCreationException {
+        try {
+            applyKnownAttribute(identifier, value);
+        } catch (IllegalArgumentException e) {
+            throw new CommandCreationException(this, "Invalid value for attribute " + identifier + ": " + value, e);
+        }
+    }
+
+    private void applyKnownAttribute(String identifier, Object value) {
+        switch (identifier) {
+            case CmdAttribute.INLINE: {
+                inline = toBoolean(value);
+                break;
+            }
+            case CmdAttribute.RATE_LIMIT: {
+                throttle().setSenderLimit(value != null ? RateLimit.of(value) : null);
+                break;
+            }
+            case CmdAttribute.GLOBAL_RATE_LIMIT: {
+                throttle().setGlobalLimit(value != null ? RateLimit.of(value) : null);
+                break;
+            }
+            case CmdAttribute.CACHE: {
+                cacheTtlNanos = value != null ? Durations.of(value).toNanos() : 0;
+                break;
+            }
+            case CmdAttribute.CACHE_PER_SENDER: {
+                cachePerSender = toBoolean(value);
+                break;
+            }
+            case CmdAttribute.TIMEOUT: {
+                timeoutNanos = value != null ? Math.max(0, Durations.of(value).toNanos()) : -1;
+                break;
+            }
+            case CmdAttribute.PRIORITY: {
+                priority = value != null ? CommandPriority.of(value) : CommandPriority.NORMAL;
+                break;
+            }
+            case CmdAttribute.COOLDOWN: {
+                throttle().setCooldown(value != null ? new RateLimit(1, Durations.of(value)) : null);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Restores everything {@link #applyAttribute(String, Object)} may have changed to its default.
+     */
+    protected void resetAttributes() {
+        inline = false;
+        synchronized (this) {
+            throttle = null;
+        }
+        cacheTtlNanos = 0;
+        cachePerSender = false;
+        timeoutNanos = -1;
+        priority = CommandPriority.NORMAL;
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean)
+            return (Boolean) value;
+        return value == null || value.toString().isEmpty() || Boolean.parseBoolean(value.toString());
+    }
+
+    /**
+     * Checks whether the command runs on the dispatching thread.
+     *
+     * @return true if inline
+     */
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * Sets whether the command is cheap enough to run on the dispatching thread.
+     *
+     * @param inline the inline
+     */
+    public void setInline(boolean inline) {
+        this.inline = inline;
+    }
+
+    /**
+     * Checks whether responses of this command are cached.
+     *
+     * @return true if cached
+     */
+    public boolean isCached() {
+        return cacheTtlNanos > 0;
+    }
+
+    /**
+     * Gets how long responses of this command stay cached.
+     *
+     * @return the ttl in nanoseconds, 0 if not cached
+     */
+    public long getCacheTtlNanos() {
+        return cacheTtlNanos;
+    }
+
+    /**
+     * Sets how long responses of this command stay cached, null or zero to disable caching.
+     *
+     * @param ttl the ttl
+     */
+    public void setCacheTtl(Duration ttl) {
+        this.cacheTtlNanos = ttl != null ? Math.max(0, ttl.toNanos()) : 0;
+    }
+
+    public boolean isCachePerSender() {
+        return cachePerSender;
+    }
+
+    /**
+     * Sets whether cached responses are kept per sender.
+     *
+     * @param cachePerSender the cache per sender
+     */
+    public void setCachePerSender(boolean cachePerSender) {
+        this.cachePerSender = cachePerSender;
+    }
+
+    /**
+     * Gets how long the handler may run before it is interrupted.
+     *
+     * @return the timeout in nanoseconds, 0 for none, or -1 to use the default of the command base
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * Sets how long the handler may run before it is interrupted.
+     *
+     * @param timeout the timeout, zero for none, or null to use the default of the command base
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeoutNanos = timeout != null ? Math.max(0, timeout.toNanos()) : -1;
+    }
+
+    /**
+     * Gets the priority class of this command.
+     *
+     * @return the priority
+     */
+    public CommandPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(CommandPriority priority) {
+        this.priority = Objects.requireNonNull(priority);
+    }
+
+    private synchronized CommandThrottle throttle() {
+        if (throttle == null)
+            throttle = new CommandThrottle();
+        return throttle;
+    }
+
+    /**
+     * Gets the rate limits and cooldown of this command.
+     *
+     * @return the throttle or null if the command is not limited
+     */
+    public CommandThrottle getThrottle() {
+        return throttle;
+    }
+
+    /**
+     * Gets the regex matching joined argument strings accepted by the format, compiled on first use.
      *
      * @return the pattern
      */
     public Pattern getPattern() {
-        return pattern;
+        return commandFormat.getPattern();
     }
 
     public CommandBase getCommandBase() {
@@ -344,30 +468,65 @@ public abstract class Command {
         this.commandBase = commandBase;
     }
 
+    /**
+     * Gets the module this command was registered with.
+     *
+     * @return the module or null if registered on its own
+     */
+    public ModuleHandle getModule() {
+        return module;
+    }
+
+    public void setModule(ModuleHandle module) {
+        this.module = module;
+    }
+
     public List<CommandArg> getCmdArgs() {
-        return commandArgs;
+        return commandFormat.getArgs();
+    }
+
+    /**
+     * Gets the parsed format.
+     *
+     * @return the format
+     */
+    public CommandFormat getCommandFormat() {
+        return commandFormat;
+    }
+
+    List<CommandFlag> getCommandFlags() {
+        return commandFlags;
+    }
+
+    /**
+     * Gets the shape of the format used for overlap detection.
+     *
+     * @return the signature
+     */
+    public CommandSignature getSignature() {
+        return commandFormat.getSignature();
     }
 
     /**
      * The type Command arg.
      */
-    public class CommandArg {
+    public static class CommandArg {
         /**
          * The Name.
          */
-        String name = "";
+        final String name;
         /**
          * The Is dynamic.
          */
-        boolean isDynamic = true;
+        final boolean isDynamic;
         /**
          * The Is required.
          */
-        boolean isRequired = false;
+        final boolean isRequired;
         /**
          * The Is rest.
          */
-        boolean isRest = false;
+        final boolean isRest;
 
         /**
          * Instantiates a new Command arg.
@@ -414,7 +573,7 @@ public abstract class Command {
     /**
      * The type Command flag.
      */
-    class CommandFlag {
+    static class CommandFlag {
         /**
          * The Name.
          */
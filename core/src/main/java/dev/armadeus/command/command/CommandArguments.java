@@ -0,0 +1,186 @@
+package dev.armadeus.command.command;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-mostly view of the dynamic arguments of an invocation, backed by the tokenized arguments and the slot layout
+ * the command computed from its format.
+ * <p>
+ * Lookups scan the few slot keys of the command instead of hashing, and the rest argument is only joined the first
+ * time it is read. Writes copy the view into a {@link HashMap} that backs it from then on, so handlers can keep
+ * treating it as a regular map.
+ */
+public final class CommandArguments extends AbstractMap<String, String> {
+
+    private final String[] keys;
+    private final int[] positions;
+    private final boolean restLast;
+    private final String[] tokens;
+    private final int size;
+    private String rest;
+    private Map<String, String> overlay;
+    private Set<Entry<String, String>> entrySet;
+
+    CommandArguments(String[] keys, int[] positions, boolean restLast, String[] tokens) {
+        this.keys = keys;
+        this.positions = positions;
+        this.restLast = restLast;
+        this.tokens = tokens;
+        int n = 0;
+        while (n < positions.length && positions[n] < tokens.length) {
+            n++;
+        }
+        this.size = n;
+    }
+
+    /**
+     * Gets the value of a slot, see {@link Command#getArgumentSlot(String)}.
+     *
+     * @param slot the slot
+     *
+     * @return the value or null if the argument was not given
+     */
+    public String get(int slot) {
+        if (overlay != null)
+            return overlay.get(keys[slot]);
+        if (slot >= size)
+            return null;
+        if (restLast && slot == keys.length - 1)
+            return rest();
+        return tokens[positions[slot]];
+    }
+
+    /**
+     * Gets the number of dynamic argument slots of the command, given or not.
+     *
+     * @return the slot count
+     */
+    public int getSlotCount() {
+        return keys.length;
+    }
+
+    private String rest() {
+        String r = rest;
+        if (r == null) {
+            int from = positions[keys.length - 1];
+            if (from == tokens.length - 1) {
+                r = tokens[from];
+            } else {
+                StringBuilder sb = new StringBuilder();
+                for (int i = from; i < tokens.length; i++) {
+                    if (i > from)
+                        sb.append(' ');
+                    sb.append(tokens[i]);
+                }
+                r = sb.toString();
+            }
+            rest = r;
+        }
+        return r;
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (overlay != null)
+            return overlay.get(key);
+        int slot = indexOf(key);
+        return slot < 0 ? null : get(slot);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (overlay != null)
+            return overlay.containsKey(key);
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return overlay != null ? overlay.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    private Map<String, String> materialize() {
+        if (overlay == null) {
+            Map<String, String> copy = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                copy.put(keys[i], get(i));
+            }
+            overlay = copy;
+        }
+        return overlay;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (overlay != null)
+            return overlay.entrySet();
+        Set<Entry<String, String>> es = entrySet;
+        if (es == null)
+            entrySet = es = new EntrySet();
+        return es;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            if (overlay != null)
+                return overlay.entrySet().iterator();
+            return new Iterator<Entry<String, String>>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<String, String> next() {
+                    if (next >= size)
+                        throw new NoSuchElementException();
+                    int slot = next++;
+                    return new SimpleImmutableEntry<>(keys[slot], get(slot));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CommandArguments.this.size();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.armadeus.command.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable parse of a command format: its args, signature and argument slots. Every command parses its format once
+ * when it is created, and the regex {@link #getPattern() pattern} is only compiled when something asks for it, since
+ * dispatch goes through {@link CommandMatcher}.
+ */
+public final class CommandFormat {
+
+    private final List<Command.CommandArg> args;
+    private final CommandSignature signature;
+    final String[] argKeys;
+    final int[] argPositions;
+    final boolean restLast;
+
+    private volatile Pattern pattern;
+
+    private CommandFormat(List<Command.CommandArg> args) {
+        this.args = Collections.unmodifiableList(args);
+        this.signature = CommandSignature.of(args);
+
+        int dynamic = 0;
+        for (Command.CommandArg arg : args) {
+            if (arg.isDynamic)
+                dynamic++;
+        }
+        argKeys = new String[dynamic];
+        argPositions = new int[dynamic];
+        int slot = 0;
+        for (int i = 0; i < args.size(); i++) {
+            Command.CommandArg arg = args.get(i);
+            if (arg.isDynamic) {
+                argKeys[slot] = arg.name.toLowerCase();
+                argPositions[slot] = i;
+                slot++;
+            }
+        }
+        restLast = !args.isEmpty() && args.get(args.size() - 1).isRest;
+    }
+
+    /**
+     * Gets the parsed format of a command.
+     *
+     * @param name   the command name, a leading token equal to it is dropped from the format
+     * @param format the format
+     *
+     * @return the parse
+     *
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static CommandFormat of(String name, String format) {
+        return new CommandFormat(parse(name, format));
+    }
+
+    private static List<Command.CommandArg> parse(String name, String format) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : format.split(" ")) {
+            if (!token.isEmpty())
+                tokens.add(token);
+        }
+        if (!tokens.isEmpty() && tokens.get(0).equals(name))
+            tokens.remove(0);
+
+        List<Command.CommandArg> args = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String arg = tokens.get(i);
+            boolean last = i == tokens.size() - 1;
+            if (arg.charAt(0) == '<' && arg.charAt(arg.length() - 1) == '>') {
+                args.add(new Command.CommandArg(arg.substring(1, arg.length() - 1), true, true, false));
+            } else if (arg.charAt(0) == '[' && arg.charAt(arg.length() - 1) == ']') {
+                if (!last)
+                    throw new IllegalArgumentException("[] statements can only be at the end of the format.");
+                args.add(new Command.CommandArg(arg.substring(1, arg.length() - 1), true, false, false));
+            } else if (arg.charAt(0) == '{' && arg.charAt(arg.length() - 1) == '}') {
+                if (!last)
+                    throw new IllegalArgumentException("{} statements can only be at the end of the format.");
+                args.add(new Command.CommandArg(arg.substring(1, arg.length() - 1), true, true, true));
+            } else if (arg.charAt(0) == '(' && arg.charAt(arg.length() - 1) == ')') {
+                if (!last)
+                    throw new IllegalArgumentException("() statements can only be at the end of the format.");
+                args.add(new Command.CommandArg(arg.substring(1, arg.length() - 1), true, false, true));
+            } else {
+                args.add(new Command.CommandArg(arg, false, true, false));
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Gets the args of the format.
+     *
+     * @return the unmodifiable args
+     */
+    public List<Command.CommandArg> getArgs() {
+        return args;
+    }
+
+    /**
+     * Gets the shape of the format used for overlap detection.
+     *
+     * @return the signature
+     */
+    public CommandSignature getSignature() {
+        return signature;
+    }
+
+    /**
+     * Gets the regex matching joined argument strings accepted by the format, compiling it on first use.
+     *
+     * @return the pattern
+     */
+    public Pattern getPattern() {
+        Pattern p = pattern;
+        if (p == null) {
+            synchronized (this) {
+                p = pattern;
+                if (p == null)
+                    pattern = p = buildPattern();
+            }
+        }
+        return p;
+    }
+
+    private Pattern buildPattern() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("^");
+        for (int i = 0; i < args.size(); i++) {
+            Command.CommandArg arg = args.get(i);
+            if (!arg.isRequired) {
+                if (i == 0) {
+                    if (arg.isRest) {
+                        sb.append(Command.firstOptionalRestRegex);
+                    } else {
+                        sb.append(Command.firstOptionalRegex);
+                    }
+                } else if (arg.isRest) {
+                    sb.append(Command.optionalRestRegex);
+                } else {
+                    sb.append(Command.optionalRegex); // Process [] tag
+                }
+            } else {
+                if (i > 0) {
+                    sb.append("\\s+"); // Add space if not first tag
+                }
+                if (arg.isDynamic) {
+                    if (arg.isRest) {
+                        sb.append(Command.restRegex); // Process {} tag
+                    } else {
+                        sb.append(Command.requiredRegex); // Process <> tag
+                    }
+                } else {
+                    sb.append(arg.name);
+                }
+            }
+        }
+        sb.append("$");
+        return Pattern.compile(sb.toString(), 0);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.CommandSender;
+
+import java.util.Map;
+
+/**
+ * Direct call into the handler backing an {@link AnnotatedCommand}.
+ */
+@FunctionalInterface
+public interface CommandInvoker {
+
+    /**
+     * Invokes the handler. Exceptions thrown by the handler are propagated as is.
+     *
+     * @param sender     the sender
+     * @param args       the args
+     * @param flags      the flags
+     * @param attributes the command attributes
+     *
+     * @throws Throwable anything thrown by the handler
+     */
+    void invoke(CommandSender sender, Map<String, String> args, Map<String, String> flags, Map<String, Object> attributes) throws Throwable;
+
+}
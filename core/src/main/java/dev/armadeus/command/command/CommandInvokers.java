@@ -0,0 +1,188 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.CommandSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Binds {@link Cmd} methods into {@link CommandInvoker}s at registration.
+ * <p>
+ * The preferred binding spins a lambda through {@link LambdaMetafactory}. Handlers taking all four parameters
+ * become a {@link CommandInvoker} directly, shorter handlers implement one of the arity specific interfaces below,
+ * which are invokers themselves and drop the parameters the handler does not take. The spun classes belong to the
+ * holder, so they are unloaded with it. When the metafactory cannot be used for the holder (e.g. its class is not
+ * reachable through a private lookup) a bound {@link MethodHandle} is used instead.
+ */
+public final class CommandInvokers {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandInvokers.class);
+
+    private CommandInvokers() {
+    }
+
+    /**
+     * Binds the method to a direct invoker.
+     *
+     * @param holder the object declaring the method, ignored for static methods
+     * @param method the method
+     * @param arity  the validated number of parameters, 1 to 4
+     *
+     * @return the invoker
+     */
+    public static CommandInvoker bind(Object holder, Method method, int arity) {
+        if (arity < 1 || arity > 4)
+            throw new IllegalArgumentException("Invalid arity " + arity);
+
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            try {
+                method.setAccessible(true);
+                return bindHandle(holder, method, MethodHandles.lookup().unreflect(method), arity);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Unable to access " + method, ex);
+            }
+        }
+
+        try {
+            return bindLambda(lookup, handle, holder, method, arity);
+        } catch (Throwable e) {
+            log.debug("Falling back to MethodHandle invocation for " + method, e);
+            return bindHandle(holder, method, handle, arity);
+        }
+    }
+
+    /**
+     * Binds a method with {@link Arg} and {@link Flag} parameters. The binding converts the invocation into the
+     * parameter values, which are spread into the method through a single {@link MethodHandle}.
+     *
+     * @param holder  the object declaring the method, ignored for static methods
+     * @param method  the method
+     * @param binding the compiled binding of the method
+     *
+     * @return the invoker
+     */
+    public static CommandInvoker bindTyped(Object holder, Method method, ArgumentBinding binding) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            try {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Unable to access " + method, ex);
+            }
+        }
+        if (!Modifier.isStatic(method.getModifiers()))
+            handle = handle.bindTo(holder);
+        MethodHandle spreader = handle.asSpreader(Object[].class, binding.size()).asType(SPREAD);
+        return (sender, args, flags, attributes) -> {
+            spreader.invokeExact(binding.bind(sender, args, flags));
+        };
+    }
+
+    private static CommandInvoker bindLambda(MethodHandles.Lookup lookup, MethodHandle handle, Object holder, Method method, int arity) throws Throwable {
+        Class<?> iface = arity == 4 ? CommandInvoker.class : ARITIES[arity - 1];
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodType instantiated = MethodType.methodType(void.class, method.getParameterTypes());
+        MethodType factoryType = isStatic ? MethodType.methodType(iface) : MethodType.methodType(iface, method.getDeclaringClass());
+
+        CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", factoryType, genericSam(arity), handle, instantiated);
+        return (CommandInvoker) (isStatic ? site.getTarget().invoke() : site.getTarget().invoke(holder));
+    }
+
+    private static CommandInvoker bindHandle(Object holder, Method method, MethodHandle handle, int arity) {
+        if (!Modifier.isStatic(method.getModifiers()))
+            handle = handle.bindTo(holder);
+        handle = handle.asType(genericSam(arity));
+        if (arity < 4)
+            handle = MethodHandles.dropArguments(handle, arity, GENERIC_PARAMETERS[3].parameterList().subList(arity, 4));
+        MethodHandle invoker = handle;
+        return (sender, args, flags, attributes) -> {
+            invoker.invokeExact(sender, args, flags, attributes);
+        };
+    }
+
+    private static MethodType genericSam(int arity) {
+        return GENERIC_PARAMETERS[arity - 1];
+    }
+
+    /**
+     * Rethrows any throwable without wrapping it.
+     *
+     * @param t the throwable
+     *
+     * @return nothing, declared so callers can {@code throw} the result
+     */
+    public static RuntimeException rethrow(Throwable t) {
+        return CommandInvokers.<RuntimeException>sneakyThrow(t);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+
+    private static final MethodType SPREAD = MethodType.methodType(void.class, Object[].class);
+
+    private static final Class<?>[] ARITIES = {Arity1.class, Arity2.class, Arity3.class};
+
+    private static final MethodType[] GENERIC_PARAMETERS = {
+            MethodType.methodType(void.class, CommandSender.class),
+            MethodType.methodType(void.class, CommandSender.class, Map.class),
+            MethodType.methodType(void.class, CommandSender.class, Map.class, Map.class),
+            MethodType.methodType(void.class, CommandSender.class, Map.class, Map.class, Map.class)
+    };
+
+    /**
+     * Target of handlers taking only the sender. Public so spun lambdas in holder classes can implement it.
+     */
+    @FunctionalInterface
+    public interface Arity1 extends CommandInvoker {
+        void invoke(CommandSender sender);
+
+        @Override
+        default void invoke(CommandSender sender, Map<String, String> args, Map<String, String> flags, Map<String, Object> attributes) {
+            invoke(sender);
+        }
+    }
+
+    /**
+     * Target of handlers taking the sender and args.
+     */
+    @FunctionalInterface
+    public interface Arity2 extends CommandInvoker {
+        void invoke(CommandSender sender, Map<String, String> args);
+
+        @Override
+        default void invoke(CommandSender sender, Map<String, String> args, Map<String, String> flags, Map<String, Object> attributes) {
+            invoke(sender, args);
+        }
+    }
+
+    /**
+     * Target of handlers taking the sender, args and flags.
+     */
+    @FunctionalInterface
+    public interface Arity3 extends CommandInvoker {
+        void invoke(CommandSender sender, Map<String, String> args, Map<String, String> flags);
+
+        @Override
+        default void invoke(CommandSender sender, Map<String, String> args, Map<String, String> flags, Map<String, Object> attributes) {
+            invoke(sender, args, flags);
+        }
+    }
+}
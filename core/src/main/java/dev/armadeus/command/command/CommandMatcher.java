@@ -0,0 +1,117 @@
+package dev.armadeus.command.command;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token level decision trie compiled from the {@link Command.CommandArg} lists of every overload registered under a
+ * single name. Matching walks the argument array once without joining it or touching {@link java.util.regex}, and
+ * resolves ambiguities the same way the per-command patterns did: the earliest registered overload wins.
+ */
+public final class CommandMatcher {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final Command[] commands;
+    private final Node root = new Node();
+
+    private CommandMatcher(List<Command> commands) {
+        this.commands = commands.toArray(new Command[0]);
+        for (int i = 0; i < this.commands.length; i++) {
+            insert(this.commands[i], i);
+        }
+    }
+
+    /**
+     * Compiles the given overloads into a matcher, preserving their order as match priority.
+     *
+     * @param commands the overloads
+     *
+     * @return the matcher
+     */
+    public static CommandMatcher compile(List<Command> commands) {
+        return new CommandMatcher(commands);
+    }
+
+    private void insert(Command command, int order) {
+        Node node = root;
+        node.minOrder = Math.min(node.minOrder, order);
+        for (Command.CommandArg arg : command.getCmdArgs()) {
+            if (!arg.isRequired()) {
+                if (arg.isRest())
+                    node.optionalRest = Math.min(node.optionalRest, order);
+                else
+                    node.optional = Math.min(node.optional, order);
+                return;
+            }
+            if (arg.isRest()) {
+                node.rest = Math.min(node.rest, order);
+                return;
+            }
+            if (arg.isDynamic()) {
+                if (node.dynamic == null)
+                    node.dynamic = new Node();
+                node = node.dynamic;
+            } else {
+                if (node.literals == null)
+                    node.literals = new HashMap<>();
+                node = node.literals.computeIfAbsent(arg.getName(), k -> new Node());
+            }
+            node.minOrder = Math.min(node.minOrder, order);
+        }
+        node.exact = Math.min(node.exact, order);
+    }
+
+    /**
+     * Finds the first registered overload accepting the arguments.
+     *
+     * @param args the processed arguments
+     *
+     * @return the command or null if none match
+     */
+    public Command match(String[] args) {
+        int order = match(root, args, 0, NONE);
+        return order == NONE ? null : commands[order];
+    }
+
+    private int match(Node node, String[] args, int index, int best) {
+        int remaining = args.length - index;
+        if (remaining == 0)
+            best = Math.min(best, node.exact);
+        if (remaining <= 1)
+            best = Math.min(best, node.optional);
+        if (remaining >= 1)
+            best = Math.min(best, node.rest);
+        best = Math.min(best, node.optionalRest);
+        if (remaining > 0) {
+            if (node.literals != null) {
+                Node next = node.literals.get(args[index]);
+                if (next != null && next.minOrder < best)
+                    best = match(next, args, index + 1, best);
+            }
+            if (node.dynamic != null && node.dynamic.minOrder < best)
+                best = match(node.dynamic, args, index + 1, best);
+        }
+        return best;
+    }
+
+    /**
+     * Gets the overloads this matcher was compiled from.
+     *
+     * @return the commands
+     */
+    public Command[] getCommands() {
+        return commands.clone();
+    }
+
+    private static final class Node {
+        Map<String, Node> literals;
+        Node dynamic;
+        int exact = NONE;
+        int optional = NONE;
+        int rest = NONE;
+        int optionalRest = NONE;
+        int minOrder = NONE;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.armadeus.command.command;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A group of commands that can be discovered on the classpath. Implementations are listed in
+ * {@code META-INF/services/dev.armadeus.command.command.CommandModule}, need a public no-arg constructor and are
+ * picked up by {@link dev.armadeus.command.CommandBase#discoverModules()}.
+ * <p>
+ * Modules are built in parallel, so {@link #createCommands()} must not depend on other modules having been built.
+ */
+public interface CommandModule {
+
+    /**
+     * Gets the name of the module, used to order discovered modules and in registration reports.
+     *
+     * @return the name
+     */
+    default String getName() {
+        return getClass().getName();
+    }
+
+    /**
+     * Creates the objects to register: {@link Command}s, {@link CommandTree}s and objects holding {@link Cmd} methods.
+     *
+     * @return the objects
+     */
+    Collection<?> createCommands();
+
+    /**
+     * Wraps existing objects, such as a {@link CommandTree}, into a module so they can be registered and reloaded as
+     * one unit.
+     *
+     * @param name    the name
+     * @param objects the objects
+     *
+     * @return the module
+     */
+    static CommandModule of(String name, Object... objects) {
+        List<Object> list = Arrays.asList(objects);
+        return new CommandModule() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Collection<?> createCommands() {
+                return list;
+            }
+        };
+    }
+
+}
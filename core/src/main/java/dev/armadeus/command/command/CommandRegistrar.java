@@ -0,0 +1,43 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.argument.ArgumentConverters;
+
+import java.util.List;
+
+/**
+ * Creates the {@link Cmd} commands of a holder class without reflection. Implementations are generated at compile time
+ * by the commands annotation processor as {@code <Holder>_CommandRegistrar} next to the holder, nested class names
+ * joined with underscores, and picked up by {@link dev.armadeus.command.CommandBase} when present.
+ *
+ * @param <T> the holder type
+ */
+public interface CommandRegistrar<T> {
+
+    /**
+     * Suffix appended to the flattened binary name of a holder class to get the name of its registrar.
+     */
+    String SUFFIX = "_CommandRegistrar";
+
+    /**
+     * Creates the commands declared by the holder, attributes already applied.
+     *
+     * @param holder     the holder instance
+     * @param converters the converters for typed parameters
+     *
+     * @return the commands
+     */
+    List<Command> createCommands(T holder, ArgumentConverters converters);
+
+    /**
+     * Gets the name of the registrar generated for a holder class.
+     *
+     * @param holder the holder class
+     *
+     * @return the binary class name
+     */
+    static String registrarName(Class<?> holder) {
+        String name = holder.getName();
+        int dot = name.lastIndexOf('.');
+        return name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + SUFFIX;
+    }
+}
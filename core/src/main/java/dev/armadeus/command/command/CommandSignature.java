@@ -0,0 +1,151 @@
+package dev.armadeus.command.command;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shape of a command format as seen by the matcher: a fixed prefix of literal or dynamic single tokens followed by an
+ * optional tail.
+ * <p>
+ * Two checks are offered. {@link #conflicts(CommandSignature)} is the rule registration enforces between overloads of
+ * one name, on top of rejecting {@link #equals(Object) equal} signatures. It only rejects formats the dispatcher could
+ * never tell apart and leaves overload sets like {@code add <node>} and {@code <user> <node>} to match in registration
+ * order. {@link #overlaps(CommandSignature)} is exact and reports every pair some argument list would match.
+ * <p>
+ * Signatures are equal when they have the same literals at the same positions and the same tail, regardless of the
+ * names of their dynamic args.
+ */
+public final class CommandSignature {
+
+    private static final int REQUIRED = 0;
+    private static final int OPTIONAL = 1;
+    private static final int REST = 2;
+    private static final int OPTIONAL_REST = 3;
+
+    private final String[] fixed;
+    private final int tail;
+    private final int minArity;
+    private final int maxArity;
+    private final int size;
+    private final int first;
+    private final int second;
+
+    private CommandSignature(String[] fixed, int tail, int size, int first, int second) {
+        this.fixed = fixed;
+        this.tail = tail;
+        this.minArity = fixed.length + (tail == REST ? 1 : 0);
+        this.maxArity = tail == REST || tail == OPTIONAL_REST ? Integer.MAX_VALUE : fixed.length + (tail == OPTIONAL ? 1 : 0);
+        this.size = size;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Builds the signature of a parsed format.
+     *
+     * @param args the command args
+     *
+     * @return the signature
+     */
+    public static CommandSignature of(List<Command.CommandArg> args) {
+        int tail = -1;
+        int size = args.size();
+        if (size > 0) {
+            int last = kind(args.get(size - 1));
+            if (last != REQUIRED) {
+                tail = last;
+                size--;
+            }
+        }
+        String[] fixed = new String[size];
+        for (int i = 0; i < size; i++) {
+            Command.CommandArg arg = args.get(i);
+            fixed[i] = arg.isDynamic() ? null : arg.getName();
+        }
+        return new CommandSignature(fixed, tail, args.size(),
+                args.size() > 0 ? kind(args.get(0)) : -1,
+                args.size() > 1 ? kind(args.get(1)) : -1);
+    }
+
+    private static int kind(Command.CommandArg arg) {
+        if (arg.isRest())
+            return arg.isRequired() ? REST : OPTIONAL_REST;
+        return arg.isRequired() ? REQUIRED : OPTIONAL;
+    }
+
+    private static boolean isRequired(int kind) {
+        return kind == REQUIRED || kind == REST;
+    }
+
+    /**
+     * Checks whether two overloads of the same name conflict. Formats of the same length conflict when they are
+     * empty, or have a single arg that is not optional on both sides. A shorter format conflicts with a longer one
+     * when it is empty and the longer one starts with an optional arg, or when it has a single rest arg, or a single
+     * required arg where the longer one has a required arg followed by an optional one. Formats of two or more args
+     * never conflict with each other.
+     *
+     * @param other the other signature
+     *
+     * @return true if they conflict
+     */
+    public boolean conflicts(CommandSignature other) {
+        if (size == other.size) {
+            if (size == 0)
+                return true;
+            return size == 1 && !(first == OPTIONAL && other.first == OPTIONAL);
+        }
+        CommandSignature shorter = size < other.size ? this : other;
+        CommandSignature longer = shorter == this ? other : this;
+        if (shorter.size == 0)
+            return !isRequired(longer.first);
+        if (shorter.size == 1)
+            return (isRequired(shorter.first) && isRequired(longer.first) && !isRequired(longer.second))
+                    || shorter.first == REST || shorter.first == OPTIONAL_REST;
+        return false;
+    }
+
+    /**
+     * Checks whether an argument list exists that both signatures accept.
+     *
+     * @param other the other signature
+     *
+     * @return true if they overlap
+     */
+    public boolean overlaps(CommandSignature other) {
+        if (Math.max(minArity, other.minArity) > Math.min(maxArity, other.maxArity))
+            return false;
+        int shared = Math.min(fixed.length, other.fixed.length);
+        for (int i = 0; i < shared; i++) {
+            String a = fixed[i];
+            String b = other.fixed[i];
+            if (a != null && b != null && !a.equals(b))
+                return false;
+        }
+        // Tokens past the shorter prefix fall into that signature's tail, which accepts anything
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof CommandSignature))
+            return false;
+        CommandSignature that = (CommandSignature) o;
+        return tail == that.tail && Arrays.equals(fixed, that.fixed);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(fixed) + tail;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CommandSignature{");
+        for (String token : fixed) {
+            sb.append(token == null ? "<>" : token).append(' ');
+        }
+        return sb.append(tail).append('}').toString();
+    }
+}
@@ -3,28 +3,44 @@ package dev.armadeus.command.command;
 import dev.armadeus.command.CommandBase;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class CommandTree {
 
     private List<SubCommand> children = new ArrayList<>();
 
     public void registerChildren(CommandBase base) {
+        base.registerAll(initChildren());
+    }
+
+    /**
+     * Initializes every child so it can be registered.
+     *
+     * @return the children
+     */
+    public List<SubCommand> initChildren() {
         for(SubCommand c : children) {
             c.init();
-            base.registerCommands(c);
         }
+        return Collections.unmodifiableList(children);
     }
 
+    /**
+     * Removes every child from the command base it was registered with, in a single registry update per base.
+     * Use {@link CommandBase#reloadModule(CommandModule)} to replace a tree while it is in use.
+     */
     public void unregisterChildren() {
-        Iterator<SubCommand> it = children.iterator();
-        Command child;
-        while(it.hasNext()) {
-            child = it.next();
-            child.getCommandBase().removeCommand(child);
-            it.remove();
+        Map<CommandBase, List<Command>> byBase = new IdentityHashMap<>();
+        for (SubCommand child : children) {
+            CommandBase base = child.getCommandBase();
+            if (base != null)
+                byBase.computeIfAbsent(base, b -> new ArrayList<>()).add(child);
         }
+        byBase.forEach(CommandBase::removeCommands);
+        children.clear();
     }
 
     protected List<SubCommand> getChildren() {
@@ -0,0 +1,23 @@
+package dev.armadeus.command.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link Cmd} method parameter to a declared flag. {@code boolean} parameters receive whether the flag was
+ * given, other types receive its converted value or null, or the zero value for primitives, when absent.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Flag {
+
+    /**
+     * The name of the flag without dashes, defaults to the parameter name when compiled with {@code -parameters}.
+     *
+     * @return the name
+     */
+    String value() default "";
+
+}
@@ -0,0 +1,224 @@
+package dev.armadeus.command.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers command events to listeners, split by event type.
+ * <p>
+ * Listeners are kept in copy-on-write arrays per event type, so dispatch never locks and callers can check
+ * {@link #hasPostProcessListeners()} and friends before creating an event at all. Post-process and exception events
+ * can be handed to a separate executor so slow listeners do not add latency to commands. Pre-process events are always
+ * delivered on the dispatching thread since listeners may cancel the command.
+ */
+public class CommandEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandEventDispatcher.class);
+    private static final CommandEventListener[] EMPTY = new CommandEventListener[0];
+
+    private volatile CommandEventListener[] preProcess = EMPTY;
+    private volatile CommandEventListener[] postProcess = EMPTY;
+    private volatile CommandEventListener[] exception = EMPTY;
+
+    private volatile Executor asyncExecutor;
+    private ExecutorService ownedExecutor;
+
+    /**
+     * Subscribes the listener to every event type it overrides.
+     *
+     * @param listener the listener
+     */
+    public synchronized void register(CommandEventListener listener) {
+        if (overrides(listener, "onCommandPreProcess", CommandPreProcessEvent.class))
+            preProcess = add(preProcess, listener);
+        if (overrides(listener, "onCommandPostProcess", CommandPostProcessEvent.class))
+            postProcess = add(postProcess, listener);
+        if (overrides(listener, "onCommandException", CommandExceptionEvent.class))
+            exception = add(exception, listener);
+    }
+
+    /**
+     * Unsubscribes the listener from every event type.
+     *
+     * @param listener the listener
+     */
+    public synchronized void unregister(CommandEventListener listener) {
+        preProcess = remove(preProcess, listener);
+        postProcess = remove(postProcess, listener);
+        exception = remove(exception, listener);
+    }
+
+    public boolean hasPreProcessListeners() {
+        return preProcess.length > 0;
+    }
+
+    public boolean hasPostProcessListeners() {
+        return postProcess.length > 0;
+    }
+
+    public boolean hasExceptionListeners() {
+        return exception.length > 0;
+    }
+
+    /**
+     * Delivers a pre-process event on the calling thread.
+     *
+     * @param event the event
+     */
+    public void firePreProcess(CommandPreProcessEvent event) {
+        for (CommandEventListener listener : preProcess) {
+            listener.onCommandPreProcess(event);
+        }
+    }
+
+    /**
+     * Delivers a post-process event, asynchronously if an async executor is set.
+     *
+     * @param event the event
+     */
+    public void firePostProcess(CommandPostProcessEvent event) {
+        CommandEventListener[] listeners = postProcess;
+        Executor executor = asyncExecutor;
+        if (executor != null && submit(executor, () -> {
+            for (CommandEventListener listener : listeners) {
+                try {
+                    listener.onCommandPostProcess(event);
+                } catch (Throwable e) {
+                    log.error("Listener failed to handle post-process event.", e);
+                }
+            }
+        }))
+            return;
+        for (CommandEventListener listener : listeners) {
+            listener.onCommandPostProcess(event);
+        }
+    }
+
+    /**
+     * Delivers an exception event, asynchronously if an async executor is set.
+     *
+     * @param event the event
+     */
+    public void fireException(CommandExceptionEvent event) {
+        CommandEventListener[] listeners = exception;
+        Executor executor = asyncExecutor;
+        if (executor != null && submit(executor, () -> {
+            for (CommandEventListener listener : listeners) {
+                try {
+                    listener.onCommandException(event);
+                } catch (Throwable e) {
+                    log.error("Listener failed to handle exception event.", e);
+                }
+            }
+        }))
+            return;
+        for (CommandEventListener listener : listeners) {
+            listener.onCommandException(event);
+        }
+    }
+
+    /**
+     * Hands a delivery to the async executor.
+     *
+     * @return false if the executor rejected it, e.g. because it was swapped out and shut down meanwhile, in which case
+     * the caller delivers the event itself
+     */
+    private static boolean submit(Executor executor, Runnable delivery) {
+        try {
+            executor.execute(delivery);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Enables or disables asynchronous delivery of post-process and exception events on a dedicated thread, which
+     * keeps events in order. Events already handed to the thread are still delivered after disabling it.
+     *
+     * @param async whether to deliver asynchronously
+     */
+    public synchronized void setAsync(boolean async) {
+        if (async) {
+            if (asyncExecutor != null)
+                return;
+            ownedExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "CommandEventThread");
+                thread.setDaemon(true);
+                return thread;
+            });
+            asyncExecutor = ownedExecutor;
+        } else {
+            setAsyncExecutor(null);
+        }
+    }
+
+    /**
+     * Delivers post-process and exception events through the given executor, null to deliver them synchronously. Events
+     * the executor rejects are delivered on the firing thread.
+     *
+     * @param executor the executor
+     */
+    public synchronized void setAsyncExecutor(Executor executor) {
+        // Swap first so new events stop reaching the old executor, which drains what it already queued
+        asyncExecutor = executor;
+        if (ownedExecutor != null && ownedExecutor != executor) {
+            ownedExecutor.shutdown();
+            ownedExecutor = null;
+        }
+    }
+
+    public boolean isAsync() {
+        return asyncExecutor != null;
+    }
+
+    /**
+     * Stops the dedicated event thread if one was started, delivering events already queued.
+     */
+    public synchronized void shutdown() {
+        ExecutorService executor = ownedExecutor;
+        asyncExecutor = null;
+        ownedExecutor = null;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                log.warn("Failed to safely shutdown event executor.", e);
+            }
+        }
+    }
+
+    private static boolean overrides(CommandEventListener listener, String name, Class<?> event) {
+        try {
+            return listener.getClass().getMethod(name, event).getDeclaringClass() != CommandEventListener.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private static CommandEventListener[] add(CommandEventListener[] listeners, CommandEventListener listener) {
+        CommandEventListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
+    }
+
+    private static CommandEventListener[] remove(CommandEventListener[] listeners, CommandEventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                CommandEventListener[] copy = new CommandEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+                return copy;
+            }
+        }
+        return listeners;
+    }
+}
@@ -2,11 +2,17 @@ package dev.armadeus.command.event;
 
 /**
  * Created by NachtRaben on 3/9/2017.
+ * <p>
+ * Every method defaults to doing nothing. Only the methods a listener overrides are subscribed, so events nobody
+ * listens to are never created.
  */
 public interface CommandEventListener {
-    void onCommandPreProcess(CommandPreProcessEvent event);
+    default void onCommandPreProcess(CommandPreProcessEvent event) {
+    }
 
-    void onCommandPostProcess(CommandPostProcessEvent event);
+    default void onCommandPostProcess(CommandPostProcessEvent event) {
+    }
 
-    void onCommandException(CommandExceptionEvent exceptionEvent);
+    default void onCommandException(CommandExceptionEvent exceptionEvent) {
+    }
 }
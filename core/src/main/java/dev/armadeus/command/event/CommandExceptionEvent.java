@@ -9,7 +9,7 @@ public class CommandExceptionEvent {
     private Command command;
     private Throwable exception;
 
-    public CommandExceptionEvent(CommandSender sender, Command command, Exception exception) {
+    public CommandExceptionEvent(CommandSender sender, Command command, Throwable exception) {
         this.sender = sender;
         this.command = command;
         this.exception = exception;
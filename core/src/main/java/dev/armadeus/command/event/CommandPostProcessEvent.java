@@ -4,6 +4,8 @@ import dev.armadeus.command.CommandResult;
 import dev.armadeus.command.CommandSender;
 import dev.armadeus.command.command.Command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class CommandPostProcessEvent {
@@ -14,6 +16,8 @@ public class CommandPostProcessEvent {
     private Map<String, String> flags;
     private CommandResult result;
     private Throwable throwable;
+    private String label;
+    private List<String> suggestions;
 
     /**
      * Instantiates a new Command Pre-Process event.
@@ -28,12 +32,30 @@ public class CommandPostProcessEvent {
     }
 
     public CommandPostProcessEvent(CommandSender sender, Command command, Map<String, String> args, Map<String, String> flags, CommandResult result, Throwable throwable) {
+        this(sender, command, args, flags, result, throwable, null, Collections.emptyList());
+    }
+
+    /**
+     * Instantiates a new Command Post-Process event.
+     *
+     * @param sender      the sender
+     * @param command     the command
+     * @param args        the args
+     * @param flags       the flags
+     * @param result      the result
+     * @param throwable   the throwable
+     * @param label       the name or alias the sender used
+     * @param suggestions similar labels for {@link CommandResult#UNKNOWN_COMMAND}
+     */
+    public CommandPostProcessEvent(CommandSender sender, Command command, Map<String, String> args, Map<String, String> flags, CommandResult result, Throwable throwable, String label, List<String> suggestions) {
         this.sender = sender;
         this.command = command;
         this.args = args;
         this.flags = flags;
         this.result = result;
         this.throwable = throwable;
+        this.label = label;
+        this.suggestions = suggestions;
     }
 
     /**
@@ -79,4 +101,22 @@ public class CommandPostProcessEvent {
     public Throwable getException() {
         return throwable;
     }
+
+    /**
+     * Gets the name or alias the sender used.
+     *
+     * @return the label, null if not known
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets registered names and aliases similar to the label of an unknown command.
+     *
+     * @return the suggestions, nearest first, empty if none
+     */
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
 }
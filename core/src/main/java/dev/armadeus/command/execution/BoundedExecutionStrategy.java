@@ -0,0 +1,155 @@
+package dev.armadeus.command.execution;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed number of worker threads in front of a bounded queue. Workers are started on demand and retire after a
+ * minute of idling.
+ */
+public class BoundedExecutionStrategy implements ExecutionStrategy {
+
+    /**
+     * Default number of workers, sized for handlers that mostly block on I/O.
+     */
+    public static final int DEFAULT_WORKERS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+    /**
+     * Default queue capacity.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final RejectionPolicy policy;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Instantiates a strategy with {@link #DEFAULT_WORKERS}, {@link #DEFAULT_QUEUE_CAPACITY} and
+     * {@link RejectionPolicy#ABORT}.
+     */
+    public BoundedExecutionStrategy() {
+        this(DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY, RejectionPolicy.ABORT);
+    }
+
+    /**
+     * Instantiates a new bounded strategy.
+     *
+     * @param workers       the maximum number of worker threads
+     * @param queueCapacity the maximum number of queued tasks
+     * @param policy        the policy applied when the queue is full
+     */
+    public BoundedExecutionStrategy(int workers, int queueCapacity, RejectionPolicy policy) {
+        this("Command", workers, queueCapacity, policy);
+    }
+
+    /**
+     * Instantiates a new bounded strategy.
+     *
+     * @param name          the prefix of worker thread names
+     * @param workers       the maximum number of worker threads
+     * @param queueCapacity the maximum number of queued tasks
+     * @param policy        the policy applied when the queue is full
+     */
+    public BoundedExecutionStrategy(String name, int workers, int queueCapacity, RejectionPolicy policy) {
+        if (workers < 1)
+            throw new IllegalArgumentException("workers must be positive");
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        this.policy = policy;
+        ThreadGroup group = new ThreadGroup(name + " Threads");
+        AtomicInteger ids = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(group, r, name + "Thread-" + ids.getAndIncrement()), new Rejector());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void submit(CommandTask task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the maximum number of worker threads.
+     *
+     * @return the worker count
+     */
+    public int getWorkers() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Gets the queue capacity.
+     *
+     * @return the capacity
+     */
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public RejectionPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private void reject(Runnable r) {
+        rejected.increment();
+        ((CommandTask) r).reject();
+    }
+
+    private class Rejector implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                reject(r);
+                return;
+            }
+            switch (policy) {
+                case DISCARD_OLDEST: {
+                    Runnable oldest = executor.getQueue().poll();
+                    if (oldest != null)
+                        reject(oldest);
+                    if (executor.getQueue().offer(r))
+                        return;
+                    reject(r);
+                    break;
+                }
+                case CALLER_RUNS: {
+                    r.run();
+                    break;
+                }
+                default: {
+                    reject(r);
+                    break;
+                }
+            }
+        }
+    }
+}
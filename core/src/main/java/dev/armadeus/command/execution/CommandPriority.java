@@ -0,0 +1,37 @@
+package dev.armadeus.command.execution;
+
+import java.util.Locale;
+
+/**
+ * Priority class of a command, used by {@link PriorityExecutionStrategy} to pick the lane it runs in.
+ */
+public enum CommandPriority {
+
+    /**
+     * Moderation and admin commands that must stay responsive under load.
+     */
+    HIGH,
+    /**
+     * Regular user commands.
+     */
+    NORMAL,
+    /**
+     * Bulk or background work that may wait.
+     */
+    LOW;
+
+    /**
+     * Converts an attribute value into a priority.
+     *
+     * @param value a priority or its case insensitive name
+     *
+     * @return the priority
+     *
+     * @throws IllegalArgumentException if the value names no priority
+     */
+    public static CommandPriority of(Object value) {
+        if (value instanceof CommandPriority)
+            return (CommandPriority) value;
+        return valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,69 @@
+package dev.armadeus.command.execution;
+
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.Command;
+
+/**
+ * A single command invocation handed to an {@link ExecutionStrategy}.
+ */
+public abstract class CommandTask implements Runnable {
+
+    private final CommandSender sender;
+    private final String label;
+    private final Command command;
+    private final long submitted;
+
+    protected CommandTask(CommandSender sender, String label, Command command) {
+        this.sender = sender;
+        this.label = label;
+        this.command = command;
+        this.submitted = System.nanoTime();
+    }
+
+    /**
+     * Runs the invocation on the current thread.
+     */
+    @Override
+    public abstract void run();
+
+    /**
+     * Completes the invocation without running it because the strategy could not accept it.
+     */
+    public abstract void reject();
+
+    /**
+     * Gets sender.
+     *
+     * @return the sender
+     */
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Gets the command name or alias the sender invoked.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the matched command.
+     *
+     * @return the command
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the task was created.
+     *
+     * @return the submission time
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+}
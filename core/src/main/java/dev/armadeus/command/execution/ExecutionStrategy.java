@@ -0,0 +1,58 @@
+package dev.armadeus.command.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides where and when {@link CommandTask}s submitted by a {@link dev.armadeus.command.CommandBase} run.
+ * <p>
+ * Every submitted task must eventually be either run or rejected, otherwise the future handed out for it never
+ * completes.
+ */
+public interface ExecutionStrategy {
+
+    /**
+     * Submits a task for execution.
+     *
+     * @param task the task
+     */
+    void submit(CommandTask task);
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return the queue depth
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the number of tasks currently running.
+     *
+     * @return the active count
+     */
+    int getActiveCount();
+
+    /**
+     * Gets the number of tasks rejected since creation.
+     *
+     * @return the rejected count
+     */
+    long getRejectedCount();
+
+    /**
+     * Stops accepting tasks, letting queued tasks finish.
+     */
+    void shutdown();
+
+    /**
+     * Waits for running and queued tasks to finish after {@link #shutdown()}.
+     *
+     * @param timeout the timeout
+     * @param unit    the unit
+     *
+     * @return true if everything finished in time
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+}
@@ -0,0 +1,226 @@
+package dev.armadeus.command.execution;
+
+import dev.armadeus.command.metrics.HistogramSnapshot;
+import dev.armadeus.command.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes tasks into one lane per {@link CommandPriority}, chosen by the {@link CommandPriority priority} of the
+ * matched command. Every lane is its own strategy with its own workers and queue, so a flood of low priority commands
+ * can only fill its own lane, while high priority commands keep their workers and low priority ones are never starved
+ * by a busy high lane.
+ * <p>
+ * Queue depth, active workers, rejections, queueing latency and run latency are tracked per lane.
+ */
+public class PriorityExecutionStrategy implements ExecutionStrategy {
+
+    private final Map<CommandPriority, Lane> lanes = new EnumMap<>(CommandPriority.class);
+
+    /**
+     * Instantiates a strategy with a {@link BoundedExecutionStrategy} per lane: a small high lane, a default sized
+     * normal lane and a low lane with a quarter of the default workers.
+     */
+    public PriorityExecutionStrategy() {
+        this(defaultLanes());
+    }
+
+    /**
+     * Instantiates a new priority strategy.
+     *
+     * @param strategies the strategy of every priority, each one exclusively owned by this strategy
+     *
+     * @throws IllegalArgumentException if a priority has no strategy
+     */
+    public PriorityExecutionStrategy(Map<CommandPriority, ? extends ExecutionStrategy> strategies) {
+        for (CommandPriority priority : CommandPriority.values()) {
+            ExecutionStrategy strategy = strategies.get(priority);
+            if (strategy == null)
+                throw new IllegalArgumentException("No strategy for priority " + priority);
+            lanes.put(priority, new Lane(strategy));
+        }
+    }
+
+    private static Map<CommandPriority, ExecutionStrategy> defaultLanes() {
+        int workers = BoundedExecutionStrategy.DEFAULT_WORKERS;
+        int capacity = BoundedExecutionStrategy.DEFAULT_QUEUE_CAPACITY;
+        Map<CommandPriority, ExecutionStrategy> strategies = new EnumMap<>(CommandPriority.class);
+        strategies.put(CommandPriority.HIGH, new BoundedExecutionStrategy("CommandHigh", Math.max(2, workers / 4), capacity / 4, RejectionPolicy.ABORT));
+        strategies.put(CommandPriority.NORMAL, new BoundedExecutionStrategy("Command", workers, capacity, RejectionPolicy.ABORT));
+        strategies.put(CommandPriority.LOW, new BoundedExecutionStrategy("CommandLow", Math.max(2, workers / 4), capacity, RejectionPolicy.ABORT));
+        return strategies;
+    }
+
+    @Override
+    public void submit(CommandTask task) {
+        lanes.get(task.getCommand().getPriority()).submit(task);
+    }
+
+    /**
+     * Gets the strategy running a lane.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the strategy
+     */
+    public ExecutionStrategy getLane(CommandPriority priority) {
+        return lanes.get(priority).strategy;
+    }
+
+    /**
+     * Gets the number of tasks waiting in a lane.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth(CommandPriority priority) {
+        return lanes.get(priority).strategy.getQueueDepth();
+    }
+
+    /**
+     * Gets the number of tasks running in a lane.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the active count
+     */
+    public int getActiveCount(CommandPriority priority) {
+        return lanes.get(priority).strategy.getActiveCount();
+    }
+
+    /**
+     * Gets the number of tasks a lane rejected.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the rejected count
+     */
+    public long getRejectedCount(CommandPriority priority) {
+        return lanes.get(priority).strategy.getRejectedCount();
+    }
+
+    /**
+     * Gets the time tasks of a lane spent between submission and starting to run.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the latency snapshot in nanoseconds
+     */
+    public HistogramSnapshot getQueueLatency(CommandPriority priority) {
+        return lanes.get(priority).queued.snapshot();
+    }
+
+    /**
+     * Gets the time tasks of a lane spent running.
+     *
+     * @param priority the priority of the lane
+     *
+     * @return the latency snapshot in nanoseconds
+     */
+    public HistogramSnapshot getRunLatency(CommandPriority priority) {
+        return lanes.get(priority).ran.snapshot();
+    }
+
+    /**
+     * Clears the latency histograms of every lane.
+     */
+    public void resetLatencies() {
+        for (Lane lane : lanes.values()) {
+            lane.queued.reset();
+            lane.ran.reset();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes.values()) {
+            depth += lane.strategy.getQueueDepth();
+        }
+        return depth;
+    }
+
+    @Override
+    public int getActiveCount() {
+        int active = 0;
+        for (Lane lane : lanes.values()) {
+            active += lane.strategy.getActiveCount();
+        }
+        return active;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        long rejected = 0;
+        for (Lane lane : lanes.values()) {
+            rejected += lane.strategy.getRejectedCount();
+        }
+        return rejected;
+    }
+
+    @Override
+    public void shutdown() {
+        for (Lane lane : lanes.values()) {
+            lane.strategy.shutdown();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for (Lane lane : lanes.values()) {
+            terminated &= lane.strategy.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return terminated;
+    }
+
+    private static final class Lane {
+
+        private final ExecutionStrategy strategy;
+        private final LatencyHistogram queued = new LatencyHistogram();
+        private final LatencyHistogram ran = new LatencyHistogram();
+
+        private Lane(ExecutionStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        private void submit(CommandTask task) {
+            strategy.submit(new TimedTask(task, this));
+        }
+    }
+
+    /**
+     * Records the latencies of a task in its lane, rejections are passed through untimed.
+     */
+    private static final class TimedTask extends CommandTask {
+
+        private final CommandTask task;
+        private final Lane lane;
+
+        private TimedTask(CommandTask task, Lane lane) {
+            super(task.getSender(), task.getLabel(), task.getCommand());
+            this.task = task;
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            lane.queued.record(start - task.getSubmitted());
+            try {
+                task.run();
+            } finally {
+                lane.ran.record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void reject() {
+            task.reject();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.armadeus.command.execution;
+
+/**
+ * What a bounded {@link ExecutionStrategy} does with a task once its queue is full.
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Reject the new task.
+     */
+    ABORT,
+    /**
+     * Reject the oldest queued task and queue the new one in its place.
+     */
+    DISCARD_OLDEST,
+    /**
+     * Run the new task on the submitting thread, slowing the producer down.
+     */
+    CALLER_RUNS
+
+}
@@ -0,0 +1,259 @@
+package dev.armadeus.command.execution;
+
+import dev.armadeus.command.CommandSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs the tasks of each sender one at a time and in submission order, multiplexing the per-sender lanes onto a fixed
+ * number of workers.
+ * <p>
+ * A lane with pending tasks sits in the worker queue at most once. A worker runs a single task of the lane and puts
+ * the lane back at the end of the queue if more tasks are pending, so busy senders take turns with everyone else
+ * instead of holding on to workers. Lanes are dropped as soon as they run empty.
+ */
+public class SerialLaneExecutionStrategy implements ExecutionStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(SerialLaneExecutionStrategy.class);
+
+    /**
+     * Default maximum number of tasks waiting in a single lane.
+     */
+    public static final int DEFAULT_LANE_CAPACITY = 32;
+
+    private final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+    private final Function<CommandSender, Object> keyFunction;
+    private final ThreadPoolExecutor executor;
+    private final int laneCapacity;
+    private final int queueCapacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Instantiates a strategy keyed by {@link CommandSender#getName()} with
+     * {@link BoundedExecutionStrategy#DEFAULT_WORKERS}, {@link #DEFAULT_LANE_CAPACITY} and
+     * {@link BoundedExecutionStrategy#DEFAULT_QUEUE_CAPACITY}.
+     */
+    public SerialLaneExecutionStrategy() {
+        this(BoundedExecutionStrategy.DEFAULT_WORKERS, DEFAULT_LANE_CAPACITY, BoundedExecutionStrategy.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Instantiates a strategy keyed by {@link CommandSender#getName()}.
+     *
+     * @param workers       the number of worker threads
+     * @param laneCapacity  the maximum number of tasks waiting per sender
+     * @param queueCapacity the maximum number of tasks waiting across all senders
+     */
+    public SerialLaneExecutionStrategy(int workers, int laneCapacity, int queueCapacity) {
+        this("Command", workers, laneCapacity, queueCapacity, CommandSender::getName);
+    }
+
+    /**
+     * Instantiates a new serial lane strategy.
+     *
+     * @param name          the prefix of worker thread names
+     * @param workers       the number of worker threads
+     * @param laneCapacity  the maximum number of tasks waiting per lane
+     * @param queueCapacity the maximum number of tasks waiting across all lanes
+     * @param keyFunction   maps a sender to its lane, tasks without a key or sender are not ordered
+     */
+    public SerialLaneExecutionStrategy(String name, int workers, int laneCapacity, int queueCapacity, Function<CommandSender, Object> keyFunction) {
+        if (workers < 1)
+            throw new IllegalArgumentException("workers must be positive");
+        if (laneCapacity < 1)
+            throw new IllegalArgumentException("laneCapacity must be positive");
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        this.keyFunction = keyFunction;
+        this.laneCapacity = laneCapacity;
+        this.queueCapacity = queueCapacity;
+        ThreadGroup group = new ThreadGroup(name + " Threads");
+        AtomicInteger ids = new AtomicInteger();
+        // Holds each lane at most once, so it is bounded by queueCapacity
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> new Thread(group, r, name + "Thread-" + ids.getAndIncrement()));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void submit(CommandTask task) {
+        if (executor.isShutdown()) {
+            reject(task);
+            return;
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            reject(task);
+            return;
+        }
+        Object key = task.getSender() != null ? keyFunction.apply(task.getSender()) : null;
+        if (key == null)
+            key = task;
+        Lane lane;
+        boolean schedule;
+        for (;;) {
+            lane = lanes.computeIfAbsent(key, Lane::new);
+            synchronized (lane) {
+                if (lane.retired)
+                    continue;
+                if (lane.tasks.size() >= laneCapacity) {
+                    queued.decrementAndGet();
+                    reject(task);
+                    return;
+                }
+                lane.tasks.add(task);
+                schedule = !lane.scheduled;
+                lane.scheduled = true;
+            }
+            break;
+        }
+        if (schedule) {
+            try {
+                executor.execute(lane);
+            } catch (RejectedExecutionException e) {
+                lane.drain();
+            }
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of lanes with pending or running tasks.
+     *
+     * @return the lane count
+     */
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return the worker count
+     */
+    public int getWorkers() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private void reject(CommandTask task) {
+        rejected.increment();
+        task.reject();
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Object key;
+        private final ArrayDeque<CommandTask> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean retired;
+
+        private Lane(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                CommandTask task;
+                synchronized (this) {
+                    task = tasks.poll();
+                }
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // The lane must keep going or every later task of the sender would wait forever
+                    log.error("Command task failed.", t);
+                } finally {
+                    active.decrementAndGet();
+                }
+                if (!release())
+                    return;
+                // Go to the back of the queue so other senders get a turn, or keep going once shut down
+                if (!executor.isShutdown()) {
+                    try {
+                        executor.execute(this);
+                        return;
+                    } catch (RejectedExecutionException ignored) {
+                    }
+                }
+            }
+        }
+
+        /**
+         * Retires the lane if it ran empty.
+         *
+         * @return true if tasks are still pending
+         */
+        private boolean release() {
+            synchronized (this) {
+                if (!tasks.isEmpty())
+                    return true;
+                scheduled = false;
+                retired = true;
+            }
+            lanes.remove(key, this);
+            return false;
+        }
+
+        private void drain() {
+            do {
+                for (;;) {
+                    CommandTask task;
+                    synchronized (this) {
+                        task = tasks.poll();
+                    }
+                    if (task == null)
+                        break;
+                    queued.decrementAndGet();
+                    reject(task);
+                }
+            } while (release());
+        }
+    }
+}
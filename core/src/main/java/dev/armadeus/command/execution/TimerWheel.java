@@ -0,0 +1,200 @@
+package dev.armadeus.command.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel for many short lived deadlines that are usually cancelled before they fire, such as command
+ * timeouts. Scheduling and cancelling are lock free and constant time, a single daemon thread advances the wheel
+ * once per tick and runs expired tasks, so tasks must be short and must not block.
+ * <p>
+ * Deadlines are rounded up to the next tick. The thread starts with the first scheduled task.
+ */
+public class TimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    /**
+     * Default tick length.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    /**
+     * Default number of buckets, one wheel revolution covers {@code DEFAULT_TICK_MILLIS * DEFAULT_BUCKETS}.
+     */
+    public static final int DEFAULT_BUCKETS = 512;
+
+    private final String name;
+    private final long tickNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean stopped;
+    private volatile long startTime;
+    private Thread worker;
+
+    public TimerWheel() {
+        this("CommandTimer", DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Instantiates a new timer wheel.
+     *
+     * @param name    the name of the timer thread
+     * @param tick    the tick length
+     * @param unit    the unit of the tick length
+     * @param buckets the number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(String name, long tick, TimeUnit unit, int buckets) {
+        if (tick <= 0 || buckets <= 0)
+            throw new IllegalArgumentException("Tick and buckets must be positive");
+        this.name = name;
+        this.tickNanos = unit.toNanos(tick);
+        int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task  the task, run on the timer thread
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     *
+     * @return the handle to cancel the task with
+     *
+     * @throws IllegalStateException if the timer was stopped
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped)
+            throw new IllegalStateException("Timer is stopped");
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        if (started.get() || !started.compareAndSet(false, true))
+            return;
+        startTime = System.nanoTime();
+        Thread thread = new Thread(this::work, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the timer thread, pending tasks never run.
+     */
+    public void stop() {
+        stopped = true;
+        Thread thread = worker;
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    private void work() {
+        long tick = 0;
+        while (!stopped) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long now = System.nanoTime();
+            while (now < deadline && !stopped) {
+                LockSupport.parkNanos(this, deadline - now);
+                now = System.nanoTime();
+            }
+            if (stopped)
+                break;
+            transferPending(tick);
+            expire(buckets[(int) (tick & mask)], now);
+            tick++;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Moves newly scheduled timeouts into the bucket of the tick they expire on.
+     */
+    private void transferPending(long tick) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled)
+                continue;
+            long expireTick = Math.max(tick, (timeout.deadline - startTime + tickNanos - 1) / tickNanos - 1);
+            timeout.rounds = (expireTick - tick) / buckets.length;
+            buckets[(int) (expireTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long now) {
+        Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.rounds <= 0) {
+                it.remove();
+                if (timeout.expire()) {
+                    try {
+                        timeout.task.run();
+                    } catch (Throwable t) {
+                        log.error("Timer task failed.", t);
+                    }
+                }
+            } else {
+                timeout.rounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private volatile boolean cancelled;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task.
+         *
+         * @return false if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true))
+                return false;
+            cancelled = true;
+            return true;
+        }
+
+        private boolean expire() {
+            return done.compareAndSet(false, true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
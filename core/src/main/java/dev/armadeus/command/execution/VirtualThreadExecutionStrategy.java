@@ -0,0 +1,201 @@
+package dev.armadeus.command.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs every command on its own virtual thread, limiting how many handlers run at once with a semaphore so blocking
+ * handlers do not overwhelm downstream services.
+ * <p>
+ * Virtual threads are looked up at runtime so the library keeps targeting Java 11. Use {@link #isSupported()} or
+ * {@link #orFallback(int)} on runtimes that may not provide them.
+ */
+public class VirtualThreadExecutionStrategy implements ExecutionStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutionStrategy.class);
+
+    private static final MethodHandle VIRTUAL_FACTORY = findVirtualFactory();
+
+    private final ThreadFactory factory;
+    private final Semaphore permits;
+    private final int concurrency;
+    private final int maxWaiting;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final Object terminationLock = new Object();
+    private volatile boolean shutdown = false;
+
+    /**
+     * Instantiates a strategy without a bound on tasks waiting for a permit.
+     *
+     * @param concurrency the maximum number of handlers running at once
+     */
+    public VirtualThreadExecutionStrategy(int concurrency) {
+        this(concurrency, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Instantiates a new virtual thread strategy.
+     *
+     * @param concurrency the maximum number of handlers running at once
+     * @param maxWaiting  the maximum number of tasks waiting for a permit before new ones are rejected
+     */
+    public VirtualThreadExecutionStrategy(int concurrency, int maxWaiting) {
+        if (!isSupported())
+            throw new UnsupportedOperationException("Virtual threads are not available on Java " + System.getProperty("java.specification.version"));
+        if (concurrency < 1)
+            throw new IllegalArgumentException("concurrency must be positive");
+        this.concurrency = concurrency;
+        this.maxWaiting = maxWaiting;
+        this.permits = new Semaphore(concurrency);
+        try {
+            this.factory = (ThreadFactory) VIRTUAL_FACTORY.invoke();
+        } catch (Throwable e) {
+            throw new UnsupportedOperationException("Failed to create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Checks whether the running JVM provides virtual threads.
+     *
+     * @return true if supported
+     */
+    public static boolean isSupported() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Creates a virtual thread strategy when supported, otherwise a {@link BoundedExecutionStrategy} with
+     * {@code concurrency} workers.
+     *
+     * @param concurrency the maximum number of handlers running at once
+     *
+     * @return the strategy
+     */
+    public static ExecutionStrategy orFallback(int concurrency) {
+        if (isSupported())
+            return new VirtualThreadExecutionStrategy(concurrency);
+        log.warn("Virtual threads are not available, falling back to " + concurrency + " platform threads.");
+        return new BoundedExecutionStrategy(concurrency, BoundedExecutionStrategy.DEFAULT_QUEUE_CAPACITY, RejectionPolicy.ABORT);
+    }
+
+    @Override
+    public void submit(CommandTask task) {
+        if (shutdown) {
+            reject(task);
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            reject(task);
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            factory.newThread(() -> run(task)).start();
+        } catch (Throwable e) {
+            waiting.decrementAndGet();
+            finished();
+            reject(task);
+        }
+    }
+
+    private void run(CommandTask task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            waiting.decrementAndGet();
+            finished();
+            reject(task);
+            return;
+        }
+        waiting.decrementAndGet();
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            finished();
+        }
+    }
+
+    private void reject(CommandTask task) {
+        rejected.increment();
+        task.reject();
+    }
+
+    private void finished() {
+        if (inFlight.decrementAndGet() == 0 && shutdown) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return concurrency - permits.availablePermits();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (inFlight.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle findVirtualFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            MethodHandle create = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual));
+            MethodHandle name = lookup.findVirtual(ofVirtual, "name", MethodType.methodType(ofVirtual, String.class, long.class));
+            MethodHandle factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            // ofVirtual().name("CommandVirtualThread-", 0).factory()
+            MethodHandle named = MethodHandles.filterReturnValue(create, MethodHandles.insertArguments(name, 1, "CommandVirtualThread-", 0L));
+            MethodHandle handle = MethodHandles.filterReturnValue(named, factory.asType(MethodType.methodType(ThreadFactory.class, ofVirtual)));
+            // Preview releases expose the API but throw unless preview features are enabled
+            handle.invoke();
+            return handle;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
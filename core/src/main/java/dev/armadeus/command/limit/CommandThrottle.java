@@ -0,0 +1,120 @@
+package dev.armadeus.command.limit;
+
+import dev.armadeus.command.CommandSender;
+
+/**
+ * The rate limits and cooldown of a single command, checked before the command is handed to the executor.
+ * <p>
+ * Per-sender limits are keyed by {@link CommandSender#getName()}.
+ */
+public final class CommandThrottle {
+
+    private static final Object GLOBAL = new Object();
+
+    private volatile RateLimiter sender;
+    private volatile RateLimiter cooldown;
+    private volatile RateLimiter global;
+
+    /**
+     * Takes a permit from every configured limit.
+     *
+     * @param commandSender the sender
+     * @param now           the current {@link System#nanoTime()}
+     *
+     * @return 0 if the command may run, otherwise the nanoseconds until it may run again
+     */
+    public long tryAcquire(CommandSender commandSender, long now) {
+        Object key = key(commandSender);
+        RateLimiter cooldown = this.cooldown;
+        RateLimiter sender = this.sender;
+        RateLimiter global = this.global;
+        long wait;
+        if (cooldown != null && (wait = cooldown.tryAcquire(key, now)) > 0)
+            return wait;
+        if (sender != null && (wait = sender.tryAcquire(key, now)) > 0) {
+            if (cooldown != null)
+                cooldown.refund(key);
+            return wait;
+        }
+        if (global != null && (wait = global.tryAcquire(GLOBAL, now)) > 0) {
+            if (cooldown != null)
+                cooldown.refund(key);
+            if (sender != null)
+                sender.refund(key);
+            return wait;
+        }
+        return 0;
+    }
+
+    /**
+     * Gives back the permits taken by a successful {@link #tryAcquire(CommandSender, long)}, used when the command
+     * never ran, e.g. because the executor rejected it.
+     *
+     * @param commandSender the sender
+     */
+    public void refund(CommandSender commandSender) {
+        Object key = key(commandSender);
+        RateLimiter cooldown = this.cooldown;
+        RateLimiter sender = this.sender;
+        RateLimiter global = this.global;
+        if (cooldown != null)
+            cooldown.refund(key);
+        if (sender != null)
+            sender.refund(key);
+        if (global != null)
+            global.refund(GLOBAL);
+    }
+
+    private static Object key(CommandSender commandSender) {
+        Object key = commandSender != null ? commandSender.getName() : null;
+        return key != null ? key : GLOBAL;
+    }
+
+    /**
+     * Checks whether any limit is configured.
+     *
+     * @return true if limited
+     */
+    public boolean isEmpty() {
+        return sender == null && cooldown == null && global == null;
+    }
+
+    public RateLimiter getSenderLimiter() {
+        return sender;
+    }
+
+    /**
+     * Limits how often each sender may run the command, null to remove the limit.
+     *
+     * @param limit the limit
+     */
+    public void setSenderLimit(RateLimit limit) {
+        sender = limit != null ? new RateLimiter(limit) : null;
+    }
+
+    public RateLimiter getCooldownLimiter() {
+        return cooldown;
+    }
+
+    /**
+     * Sets the cooldown between two runs by the same sender, null to remove it.
+     *
+     * @param limit the limit, one permit per cooldown
+     */
+    public void setCooldown(RateLimit limit) {
+        cooldown = limit != null ? new RateLimiter(limit) : null;
+    }
+
+    public RateLimiter getGlobalLimiter() {
+        return global;
+    }
+
+    /**
+     * Limits how often the command may run across all senders, null to remove the limit.
+     *
+     * @param limit the limit
+     */
+    public void setGlobalLimit(RateLimit limit) {
+        global = limit != null ? new RateLimiter(limit) : null;
+    }
+}
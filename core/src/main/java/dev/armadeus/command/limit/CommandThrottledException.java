@@ -0,0 +1,40 @@
+package dev.armadeus.command.limit;
+
+import dev.armadeus.command.command.Command;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attached to the post-process event of a throttled command. Carries no stack trace since it is only informational.
+ */
+public class CommandThrottledException extends RuntimeException {
+
+    private final Command command;
+    private final long retryAfterNanos;
+
+    public CommandThrottledException(Command command, long retryAfterNanos) {
+        super(null, null, false, false);
+        this.command = command;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the time until the sender may run the command again.
+     *
+     * @param unit the unit
+     *
+     * @return the time
+     */
+    public long getRetryAfter(TimeUnit unit) {
+        return unit.convert(retryAfterNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String getMessage() {
+        return command.getName() + " is rate limited, retry in " + TimeUnit.NANOSECONDS.toMillis(retryAfterNanos) + "ms";
+    }
+}
@@ -0,0 +1,85 @@
+package dev.armadeus.command.limit;
+
+import dev.armadeus.command.Durations;
+
+import java.time.Duration;
+
+/**
+ * A number of permits per period, e.g. {@code 3/10s}. All permits may be used in a burst, after which they refill
+ * evenly over the period.
+ */
+public final class RateLimit {
+
+    private final int permits;
+    private final long periodNanos;
+
+    /**
+     * Instantiates a new rate limit.
+     *
+     * @param permits the permits per period
+     * @param period  the period
+     */
+    public RateLimit(int permits, Duration period) {
+        if (permits < 1)
+            throw new IllegalArgumentException("permits must be positive");
+        if (period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("period must be positive");
+        this.permits = permits;
+        this.periodNanos = period.toNanos();
+    }
+
+    /**
+     * Parses a limit like {@code 3/10s}. A bare duration such as {@code 5s} is a cooldown of one permit per duration.
+     *
+     * @param value the value
+     *
+     * @return the rate limit
+     *
+     * @throws IllegalArgumentException if the value is not a valid limit
+     */
+    public static RateLimit parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0)
+            return new RateLimit(1, Durations.parse(value));
+        try {
+            return new RateLimit(Integer.parseInt(value.substring(0, slash).trim()), Durations.parse(value.substring(slash + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rate limit " + value, e);
+        }
+    }
+
+    /**
+     * Converts an attribute value, either a {@link RateLimit} or a string accepted by {@link #parse(String)}.
+     *
+     * @param value the value
+     *
+     * @return the rate limit
+     */
+    public static RateLimit of(Object value) {
+        if (value instanceof RateLimit)
+            return (RateLimit) value;
+        return parse(String.valueOf(value));
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Gets the time it takes to refill a single permit.
+     *
+     * @return the interval in nanoseconds
+     */
+    public long getIntervalNanos() {
+        return Math.max(1, periodNanos / permits);
+    }
+
+    @Override
+    public String toString() {
+        return permits + "/" + Duration.ofNanos(periodNanos);
+    }
+}
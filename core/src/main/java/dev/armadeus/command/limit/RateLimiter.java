@@ -0,0 +1,115 @@
+package dev.armadeus.command.limit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free GCRA (generic cell rate algorithm) limiter, equivalent to a token bucket but keeping a single
+ * theoretical arrival time per bucket that is advanced with a compare-and-set.
+ * <p>
+ * Buckets are created on first use per key. A bucket whose arrival time has passed is full again and therefore
+ * indistinguishable from a new one, such idle buckets are evicted by an occasional sweep run on the acquiring thread.
+ */
+public final class RateLimiter {
+
+    /**
+     * Minimum time between sweeps for idle buckets.
+     */
+    private static final long SWEEP_INTERVAL = 60_000_000_000L;
+    /**
+     * Arrival time marking a bucket removed by the sweep.
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final RateLimit limit;
+    private final long interval;
+    private final long period;
+    private final ConcurrentHashMap<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    /**
+     * Instantiates a new rate limiter.
+     *
+     * @param limit the limit applied to every key
+     */
+    public RateLimiter(RateLimit limit) {
+        this.limit = limit;
+        this.interval = limit.getIntervalNanos();
+        this.period = interval * limit.getPermits();
+        this.lastSweep = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit for the key.
+     *
+     * @param key the bucket key
+     * @param now the current {@link System#nanoTime()}
+     *
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(Object key, long now) {
+        long last = lastSweep.get();
+        if (now - last > Math.max(SWEEP_INTERVAL, period) && lastSweep.compareAndSet(last, now))
+            sweep(now);
+        for (;;) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                AtomicLong created = new AtomicLong(now + interval);
+                bucket = buckets.putIfAbsent(key, created);
+                if (bucket == null)
+                    return 0;
+            }
+            for (;;) {
+                long tat = bucket.get();
+                if (tat == EVICTED)
+                    break;
+                long next = (tat - now < 0 ? now : tat) + interval;
+                long wait = next - now - period;
+                if (wait > 0)
+                    return wait;
+                if (bucket.compareAndSet(tat, next))
+                    return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire(Object, long)}, used when a later limit rejected the call.
+     *
+     * @param key the bucket key
+     */
+    public void refund(Object key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null)
+            return;
+        for (;;) {
+            long tat = bucket.get();
+            if (tat == EVICTED || bucket.compareAndSet(tat, tat - interval))
+                return;
+        }
+    }
+
+    private void sweep(long now) {
+        Iterator<AtomicLong> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            AtomicLong bucket = it.next();
+            long tat = bucket.get();
+            if (tat - now <= 0 && bucket.compareAndSet(tat, EVICTED))
+                it.remove();
+        }
+    }
+
+    /**
+     * Gets the number of buckets currently tracked.
+     *
+     * @return the bucket count
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    public RateLimit getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.armadeus.command.metrics;
+
+import dev.armadeus.command.CommandResult;
+import dev.armadeus.command.command.Command;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per command result counters and stage latencies recorded by a {@link dev.armadeus.command.CommandBase}.
+ * Invocations that never matched a command are recorded under {@link #getUnmatched()}.
+ */
+public class CommandMetrics {
+
+    private final ConcurrentHashMap<Command, CommandStats> stats = new ConcurrentHashMap<>();
+    private final CommandStats unmatched = new CommandStats();
+    private volatile boolean enabled = true;
+
+    /**
+     * Gets the stats of a command, creating them on first use.
+     *
+     * @param command the command, null for unmatched invocations
+     *
+     * @return the stats
+     */
+    public CommandStats getStats(Command command) {
+        if (command == null)
+            return unmatched;
+        CommandStats s = stats.get(command);
+        if (s == null)
+            s = stats.computeIfAbsent(command, c -> new CommandStats());
+        return s;
+    }
+
+    public CommandStats getUnmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Records a completed invocation. Stages that did not happen are passed as negative values and skipped.
+     *
+     * @param command the command, null if none matched
+     * @param result  the result
+     * @param parse   the parse time
+     * @param match   the match time
+     * @param queue   the queue time
+     * @param run     the handler time
+     * @param total   the total time
+     */
+    public void record(Command command, CommandResult result, long parse, long match, long queue, long run, long total) {
+        if (!enabled)
+            return;
+        CommandStats s = getStats(command);
+        s.count(result);
+        if (parse >= 0)
+            s.record(Stage.PARSE, parse);
+        if (match >= 0)
+            s.record(Stage.MATCH, match);
+        if (queue >= 0)
+            s.record(Stage.QUEUE, queue);
+        if (run >= 0)
+            s.record(Stage.RUN, run);
+        if (total >= 0)
+            s.record(Stage.TOTAL, total);
+    }
+
+    /**
+     * Drops the stats of a command, e.g. after it was removed.
+     *
+     * @param command the command
+     */
+    public void remove(Command command) {
+        stats.remove(command);
+    }
+
+    /**
+     * Copies the stats of every command seen so far.
+     *
+     * @return the snapshots keyed by command
+     */
+    public Map<Command, CommandStats.Snapshot> snapshot() {
+        Map<Command, CommandStats.Snapshot> snapshot = new IdentityHashMap<>();
+        stats.forEach((command, s) -> snapshot.put(command, s.snapshot()));
+        return snapshot;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,114 @@
+package dev.armadeus.command.metrics;
+
+import dev.armadeus.command.CommandResult;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result counters and stage latencies of a single command.
+ */
+public final class CommandStats {
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final CommandResult[] RESULTS = CommandResult.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[STAGES.length];
+    private final LongAdder[] results = new LongAdder[RESULTS.length];
+
+    CommandStats() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the latency of a stage.
+     *
+     * @param stage the stage
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(Stage stage, long nanos) {
+        latencies[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts a result.
+     *
+     * @param result the result
+     */
+    public void count(CommandResult result) {
+        results[result.ordinal()].increment();
+    }
+
+    public LatencyHistogram getLatency(Stage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    public long getCount(CommandResult result) {
+        return results[result.ordinal()].sum();
+    }
+
+    /**
+     * Copies the counters and histograms.
+     *
+     * @return the results and latency snapshots
+     */
+    public Snapshot snapshot() {
+        Map<CommandResult, Long> counts = new EnumMap<>(CommandResult.class);
+        for (CommandResult result : RESULTS) {
+            long count = results[result.ordinal()].sum();
+            if (count > 0)
+                counts.put(result, count);
+        }
+        Map<Stage, HistogramSnapshot> histograms = new EnumMap<>(Stage.class);
+        for (Stage stage : STAGES) {
+            histograms.put(stage, latencies[stage.ordinal()].snapshot());
+        }
+        return new Snapshot(Collections.unmodifiableMap(counts), Collections.unmodifiableMap(histograms));
+    }
+
+    /**
+     * Point in time copy of {@link CommandStats}.
+     */
+    public static final class Snapshot {
+
+        private final Map<CommandResult, Long> results;
+        private final Map<Stage, HistogramSnapshot> latencies;
+
+        Snapshot(Map<CommandResult, Long> results, Map<Stage, HistogramSnapshot> latencies) {
+            this.results = results;
+            this.latencies = latencies;
+        }
+
+        /**
+         * Gets the number of invocations per result, results never seen are absent.
+         *
+         * @return the results
+         */
+        public Map<CommandResult, Long> getResults() {
+            return results;
+        }
+
+        public Map<Stage, HistogramSnapshot> getLatencies() {
+            return latencies;
+        }
+
+        public HistogramSnapshot getLatency(Stage stage) {
+            return latencies.get(stage);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "results=" + results +
+                    ", latencies=" + latencies +
+                    '}';
+        }
+    }
+}
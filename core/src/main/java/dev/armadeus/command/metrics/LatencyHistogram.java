@@ -0,0 +1,110 @@
+package dev.armadeus.command.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies in the spirit of HdrHistogram. Every power of two is split
+ * into {@value #SUB_BUCKETS} linear buckets, bounding the relative error of any recorded value to roughly 6%.
+ * Buckets are tracked up to about 2.4 hours, longer values are counted in the top bucket while the max and sum stay
+ * exact. The buckets of a power of two are only allocated once a value in it is recorded, so a histogram only costs
+ * memory for the range its latencies actually span.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int MAX_BITS = 43;
+    static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_BITS - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(BUCKETS >> SUB_BITS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values are recorded as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        int index = index(Math.min(nanos, MAX_VALUE));
+        chunk(index >> SUB_BITS).incrementAndGet(index & (SUB_BUCKETS - 1));
+        count.increment();
+        sum.add(nanos);
+        long current;
+        while (nanos > (current = max.get())) {
+            if (max.compareAndSet(current, nanos))
+                break;
+        }
+    }
+
+    /**
+     * Takes a snapshot. Values recorded concurrently may or may not be included.
+     *
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        int used = chunks.length();
+        while (used > 0 && chunks.get(used - 1) == null) {
+            used--;
+        }
+        long[] copy = new long[used << SUB_BITS];
+        for (int c = 0; c < used; c++) {
+            AtomicLongArray chunk = chunks.get(c);
+            if (chunk == null)
+                continue;
+            for (int i = 0; i < SUB_BUCKETS; i++) {
+                copy[(c << SUB_BITS) + i] = chunk.get(i);
+            }
+        }
+        return new HistogramSnapshot(copy, count.sum(), sum.sum(), max.get());
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int c = 0; c < chunks.length(); c++) {
+            AtomicLongArray chunk = chunks.get(c);
+            if (chunk == null)
+                continue;
+            for (int i = 0; i < SUB_BUCKETS; i++) {
+                chunk.set(i, 0);
+            }
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private AtomicLongArray chunk(int c) {
+        AtomicLongArray chunk = chunks.get(c);
+        if (chunk == null) {
+            chunks.compareAndSet(c, null, new AtomicLongArray(SUB_BUCKETS));
+            chunk = chunks.get(c);
+        }
+        return chunk;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
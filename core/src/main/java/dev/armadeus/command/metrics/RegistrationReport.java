@@ -0,0 +1,117 @@
+package dev.armadeus.command.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent registering commands with a {@link dev.armadeus.command.CommandBase}, per registered module and for
+ * publishing the results into the registry.
+ */
+public final class RegistrationReport {
+
+    private final List<Module> modules;
+    private final long publishNanos;
+
+    public RegistrationReport(List<Module> modules, long publishNanos) {
+        this.modules = Collections.unmodifiableList(modules);
+        this.publishNanos = publishNanos;
+    }
+
+    /**
+     * Gets the modules in registration order.
+     *
+     * @return the unmodifiable modules
+     */
+    public List<Module> getModules() {
+        return modules;
+    }
+
+    /**
+     * Gets the time spent publishing collected commands, overlap checks included.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+
+    /**
+     * Gets the time spent building commands of every module and publishing them.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = publishNanos;
+        for (Module module : modules) {
+            total += module.nanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Registration took ")
+                .append(TimeUnit.NANOSECONDS.toMicros(getTotalNanos())).append("us, publishing ")
+                .append(TimeUnit.NANOSECONDS.toMicros(publishNanos)).append("us");
+        for (Module module : modules) {
+            sb.append("\n  ").append(module);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One object handed to the command base for registration.
+     */
+    public static final class Module {
+
+        private final String name;
+        private final int commands;
+        private final long nanos;
+        private final boolean generated;
+
+        public Module(String name, int commands, long nanos, boolean generated) {
+            this.name = name;
+            this.commands = commands;
+            this.nanos = nanos;
+            this.generated = generated;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of commands the module produced.
+         *
+         * @return the count
+         */
+        public int getCommands() {
+            return commands;
+        }
+
+        /**
+         * Gets the time spent building the commands of the module.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Checks whether the commands came from a generated {@link dev.armadeus.command.command.CommandRegistrar}.
+         *
+         * @return true if generated, false if built reflectively or handed over as commands
+         */
+        public boolean isGenerated() {
+            return generated;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + commands + " commands in " + TimeUnit.NANOSECONDS.toMicros(nanos) + "us"
+                    + (generated ? " (generated)" : "");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.armadeus.command.metrics;
+
+/**
+ * Phases of a command invocation that are timed separately.
+ */
+public enum Stage {
+
+    /**
+     * Splitting the raw arguments into arguments and flags.
+     */
+    PARSE,
+    /**
+     * Resolving the overload matching the arguments.
+     */
+    MATCH,
+    /**
+     * Waiting in the execution strategy before a thread picked the command up.
+     */
+    QUEUE,
+    /**
+     * Running the command handler.
+     */
+    RUN,
+    /**
+     * From the call to execute until the result was known.
+     */
+    TOTAL
+
+}
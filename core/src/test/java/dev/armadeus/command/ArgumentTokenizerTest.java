@@ -0,0 +1,90 @@
+package dev.armadeus.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ArgumentTokenizerTest {
+
+    private static final Pattern FLAGS = Pattern.compile("^-\\w+$");
+    private static final Pattern FLAG = Pattern.compile("^--\\w+$");
+    private static final Pattern FLAG_WITH_VALUE = Pattern.compile("^--\\w+=\\S+$");
+
+    private static final String[] TOKENS = {
+            "a", "bc", "-", "-f", "-abc", "-a1_", "-a-b", "--", "--force", "--x_1", "--name=ted", "--name=", "--=x",
+            "--a=b=c", "--a b", "-\u00e9", "\\-1", "\\-", "\\x", "x\\-", "\"", "\"quoted", "end\"", "--n=\"v"
+    };
+
+    /**
+     * The regex based splitting the tokenizer replaced.
+     */
+    private static String[] regexTokenize(String[] arguments, Map<String, String> flags) {
+        List<String> processed = new ArrayList<>();
+        for (String s : arguments) {
+            if (FLAGS.matcher(s).find()) {
+                for (char c : s.substring(1).toCharArray()) {
+                    flags.put(String.valueOf(c), null);
+                }
+            } else if (FLAG.matcher(s).find()) {
+                flags.put(s.substring(2), null);
+            } else if (FLAG_WITH_VALUE.matcher(s).find()) {
+                flags.put(s.substring(2, s.indexOf("=")), s.substring(s.indexOf("=") + 1));
+            } else if (s.startsWith("\\-")) {
+                processed.add(s.replace("\\", ""));
+            } else {
+                processed.add(s);
+            }
+        }
+        return processed.toArray(new String[0]);
+    }
+
+    @Test
+    void matchesRegexSplitting() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20000; round++) {
+            String[] input = new String[random.nextInt(6)];
+            for (int i = 0; i < input.length; i++) {
+                input[i] = TOKENS[random.nextInt(TOKENS.length)];
+            }
+            Map<String, String> expectedFlags = new HashMap<>();
+            String[] expected = regexTokenize(input, expectedFlags);
+            CommandFlags flags = new CommandFlags();
+            String[] actual = ArgumentTokenizer.tokenize(input.clone(), true, false, flags);
+            assertArrayEquals(expected, actual, () -> Arrays.toString(input));
+            assertEquals(expectedFlags, flags, () -> Arrays.toString(input));
+        }
+    }
+
+    @Test
+    void returnsInputWhenNothingChanges() {
+        String[] input = {"a", "b"};
+        assertSame(input, ArgumentTokenizer.tokenize(input, true, true, new CommandFlags()));
+    }
+
+    @Test
+    void flagsAreKeptWhenDisabled() {
+        CommandFlags flags = new CommandFlags();
+        assertArrayEquals(new String[]{"-f", "--force"}, ArgumentTokenizer.tokenize(new String[]{"-f", "--force"}, false, false, flags));
+        assertEquals(0, flags.size());
+    }
+
+    @Test
+    void groupsQuotes() {
+        CommandFlags flags = new CommandFlags();
+        String[] args = ArgumentTokenizer.tokenize(new String[]{"\"hello", "big", "world\"", "--msg=\"a", "b\"", "\"open"}, true, true, flags);
+        assertArrayEquals(new String[]{"hello big world", "\"open"}, args);
+        assertEquals("a b", flags.get("msg"));
+        assertNull(flags.get("open"));
+    }
+}
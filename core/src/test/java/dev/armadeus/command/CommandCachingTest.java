@@ -0,0 +1,128 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.cache.CapturableSender;
+import dev.armadeus.command.command.Cmd;
+import dev.armadeus.command.command.CmdAttribute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CommandCachingTest {
+
+    private CommandBase base;
+    private Handlers handlers;
+
+    @BeforeEach
+    void setUp() {
+        base = new CommandBase();
+        handlers = new Handlers();
+        base.registerCommands(handlers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    @Test
+    void replaysResponsesOfCapturableSenders() throws Exception {
+        PlatformSender sender = new PlatformSender();
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(sender, "info", new String[]{"x"}).get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(sender, "info", new String[]{"x"}).get(5, TimeUnit.SECONDS));
+        assertEquals(1, handlers.runs.get());
+        assertEquals(List.of("info x", "info x"), sender.received);
+        assertEquals(1, base.getCache().getHitCount());
+    }
+
+    @Test
+    void handsOtherSendersOverUntouched() throws Exception {
+        PlainSender sender = new PlainSender();
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(sender, "info", new String[]{"x"}).get(5, TimeUnit.SECONDS));
+        assertSame(sender, handlers.lastSender);
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(sender, "info", new String[]{"x"}).get(5, TimeUnit.SECONDS));
+        assertEquals(2, handlers.runs.get());
+        assertEquals(0, base.getCache().size());
+    }
+
+    @Test
+    void doesNotCacheInterruptedHandlers() throws Exception {
+        base.setDefaultTimeout(Duration.ofMillis(20));
+        PlatformSender sender = new PlatformSender();
+        assertEquals(CommandResult.TIMEOUT, base.executeAsync(sender, "partial", new String[0]).get(5, TimeUnit.SECONDS));
+        base.shutdown();
+        assertEquals(List.of("partial"), sender.received);
+        assertEquals(0, base.getCache().size());
+    }
+
+    static class PlainSender implements CommandSender {
+
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void sendMessage(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public String getName() {
+            return "plain";
+        }
+
+        @Override
+        public Future<CommandResult> runCommand(String command, String[] args) {
+            return null;
+        }
+    }
+
+    static class PlatformSender extends PlainSender implements CapturableSender {
+
+        @Override
+        public CommandSender capture(Consumer<String> recorder) {
+            PlatformSender real = this;
+            return new PlatformSender() {
+                @Override
+                public void sendMessage(String message) {
+                    recorder.accept(message);
+                    real.sendMessage(message);
+                }
+            };
+        }
+    }
+
+    public static class Handlers {
+
+        private final AtomicInteger runs = new AtomicInteger();
+        private volatile CommandSender lastSender;
+
+        @Cmd(name = "info", format = "<id>", description = "")
+        @CmdAttribute(name = CmdAttribute.CACHE, value = "1m")
+        public void info(CommandSender sender, Map<String, String> args) {
+            runs.incrementAndGet();
+            lastSender = sender;
+            sender.sendMessage("info " + args.get("id"));
+        }
+
+        @Cmd(name = "partial", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.CACHE, value = "1m")
+        public void partial(CommandSender sender) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                // Swallowed on purpose, the output below is incomplete
+            }
+            sender.sendMessage("partial");
+        }
+    }
+}
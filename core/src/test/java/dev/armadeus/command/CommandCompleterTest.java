@@ -0,0 +1,88 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandCompleterTest {
+
+    private static final CommandSender SENDER = new CommandSender() {
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public String getName() {
+            return "tester";
+        }
+
+        @Override
+        public Future<CommandResult> runCommand(String command, String[] args) {
+            return null;
+        }
+    };
+
+    private final CommandBase base = new CommandBase();
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    private static Command command(String name, String format, String... aliases) {
+        Command command = new Command(name, format, "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+        command.getAliases().addAll(List.of(aliases));
+        return command;
+    }
+
+    @Test
+    void labelsDifferingInCaseStaySeparate() {
+        base.registerAll(List.of(command("Ping", ""), command("ping", "<host>")));
+        assertEquals(List.of("Ping", "ping"), base.complete(""));
+        assertEquals(List.of("ping"), base.complete("p"));
+        assertEquals(List.of("Ping"), base.complete("P"));
+        assertEquals(2, base.getCompleter().size());
+    }
+
+    @Test
+    void everyCompletionDispatches() {
+        base.registerAll(List.of(command("Ping", ""), command("stats", "", "Stat"), command("perm", "add <node>")));
+        for (String label : base.complete("")) {
+            String[] args = label.equals("perm") ? new String[]{"add", "x"} : new String[0];
+            assertNotEquals(CommandResult.UNKNOWN_COMMAND, base.executeInline(SENDER, label, args), label);
+        }
+        assertTrue(base.complete("ping").isEmpty());
+        assertEquals(CommandResult.UNKNOWN_COMMAND, base.executeInline(SENDER, "ping", new String[0]));
+    }
+
+    @Test
+    void literalTokensMatchCaseLikeDispatch() {
+        base.registerAll(List.of(command("perm", "add <node>"), command("perm", "Remove <node>")));
+        assertEquals(List.of("Remove", "add"), base.complete("perm "));
+        assertEquals(List.of("add"), base.complete("perm a"));
+        assertTrue(base.complete("perm A").isEmpty());
+        assertTrue(base.complete("Perm ").isEmpty());
+    }
+
+    @Test
+    void followsAliasUpdates() {
+        Command command = command("stats", "", "Stat");
+        base.registerAll(List.of(command));
+        assertEquals(List.of("Stat"), base.complete("S"));
+        base.updateAliases(command, List.of("Stat"), List.of("st"));
+        assertTrue(base.complete("S").isEmpty());
+        assertEquals(List.of("st", "stats"), base.complete("st"));
+    }
+}
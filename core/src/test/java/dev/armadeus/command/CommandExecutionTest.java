@@ -0,0 +1,150 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Cmd;
+import dev.armadeus.command.command.CmdAttribute;
+import dev.armadeus.command.execution.BoundedExecutionStrategy;
+import dev.armadeus.command.execution.CommandPriority;
+import dev.armadeus.command.execution.PriorityExecutionStrategy;
+import dev.armadeus.command.execution.RejectionPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandExecutionTest {
+
+    private static final CommandSender SENDER = new CommandSender() {
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public String getName() {
+            return "tester";
+        }
+
+        @Override
+        public Future<CommandResult> runCommand(String command, String[] args) {
+            return null;
+        }
+    };
+
+    private CommandBase base;
+    private Handlers handlers;
+
+    @BeforeEach
+    void setUp() {
+        base = new CommandBase(new BoundedExecutionStrategy("Test", 1, 1, RejectionPolicy.ABORT));
+        handlers = new Handlers();
+        base.registerCommands(handlers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    @Test
+    void executeRunsInlineCommandsOnTheCaller() throws Exception {
+        Future<CommandResult> future = base.execute(SENDER, "inline", new String[0]);
+        assertTrue(future.isDone());
+        assertEquals(CommandResult.SUCCESS, future.get());
+        assertSame(Thread.currentThread(), handlers.ranOn);
+    }
+
+    @Test
+    void executeRunsOtherCommandsOnTheStrategy() throws Exception {
+        assertEquals(CommandResult.SUCCESS, base.execute(SENDER, "queued", new String[0]).get(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), handlers.ranOn);
+    }
+
+    @Test
+    void unknownCommandsNeverReachTheStrategy() throws Exception {
+        Future<CommandResult> future = base.execute(SENDER, "missing", new String[0]);
+        assertTrue(future.isDone());
+        assertEquals(CommandResult.UNKNOWN_COMMAND, future.get());
+    }
+
+    @Test
+    void throttledCallsNeverTakeAQueueSlot() throws Exception {
+        Future<CommandResult> blocked = base.execute(SENDER, "block", new String[0]);
+        assertTrue(handlers.blocking.await(5, TimeUnit.SECONDS));
+        Future<CommandResult> queued = base.execute(SENDER, "limited", new String[0]);
+        Future<CommandResult> throttled = base.execute(SENDER, "limited", new String[0]);
+        assertTrue(throttled.isDone());
+        assertEquals(CommandResult.THROTTLED, throttled.get());
+        assertEquals(1, base.getExecutionStrategy().getQueueDepth());
+        assertEquals(0, base.getExecutionStrategy().getRejectedCount());
+        handlers.release.countDown();
+        assertEquals(CommandResult.SUCCESS, blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.SUCCESS, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectedCallsGiveBackTheirPermits() throws Exception {
+        Future<CommandResult> blocked = base.execute(SENDER, "block", new String[0]);
+        assertTrue(handlers.blocking.await(5, TimeUnit.SECONDS));
+        Future<CommandResult> queued = base.execute(SENDER, "queued", new String[0]);
+        assertEquals(CommandResult.REJECTED, base.execute(SENDER, "limited", new String[0]).get(5, TimeUnit.SECONDS));
+        handlers.release.countDown();
+        assertEquals(CommandResult.SUCCESS, blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.SUCCESS, queued.get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.SUCCESS, base.execute(SENDER, "limited", new String[0]).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void executeRoutesByPriority() throws Exception {
+        PriorityExecutionStrategy strategy = new PriorityExecutionStrategy();
+        CommandBase prioritized = new CommandBase(strategy);
+        try {
+            prioritized.registerCommands(handlers);
+            assertEquals(CommandResult.SUCCESS, prioritized.execute(SENDER, "urgent", new String[0]).get(5, TimeUnit.SECONDS));
+            assertEquals(1, strategy.getQueueLatency(CommandPriority.HIGH).getCount());
+            assertEquals(0, strategy.getQueueLatency(CommandPriority.NORMAL).getCount());
+        } finally {
+            prioritized.shutdown();
+        }
+    }
+
+    public static class Handlers {
+
+        private final CountDownLatch blocking = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile Thread ranOn;
+
+        @Cmd(name = "inline", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.INLINE, value = "true")
+        public void inline(CommandSender sender) {
+            ranOn = Thread.currentThread();
+        }
+
+        @Cmd(name = "queued", format = "", description = "")
+        public void queued(CommandSender sender) {
+            ranOn = Thread.currentThread();
+        }
+
+        @Cmd(name = "block", format = "", description = "")
+        public void block(CommandSender sender) throws InterruptedException {
+            blocking.countDown();
+            release.await();
+        }
+
+        @Cmd(name = "limited", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.COOLDOWN, value = "1m")
+        public void limited(CommandSender sender) {
+        }
+
+        @Cmd(name = "urgent", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.PRIORITY, value = "high")
+        public void urgent(CommandSender sender) {
+        }
+    }
+}
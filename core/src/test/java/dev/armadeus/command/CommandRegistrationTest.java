@@ -0,0 +1,68 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandRegistrationTest {
+
+    private final CommandBase base = new CommandBase();
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    private static Command command(String name, String format) {
+        return new Command(name, format, "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+    }
+
+    @Test
+    void rejectsDuplicateSignatures() {
+        Command first = command("perm", "add <user> <node>");
+        Command renamed = command("perm", "add <a> <b>");
+        Command same = command("perm", "add <user> <node>");
+        List<CommandConflict> conflicts = base.registerAll(Arrays.asList(first, renamed, same));
+        assertEquals(2, conflicts.size());
+        assertEquals(1, base.getCommand("perm").size());
+    }
+
+    @Test
+    void acceptsOverloadsTheMatcherCanOrder() {
+        List<CommandConflict> conflicts = base.registerAll(Arrays.asList(
+                command("perm", "add <node>"),
+                command("perm", "<user> <node>"),
+                command("perm", "add <user> <node>"),
+                command("perm", "<user> add <node>")));
+        assertTrue(conflicts.isEmpty());
+        assertEquals(4, base.getCommand("perm").size());
+    }
+
+    @Test
+    void duplicatesAreCheckedAcrossCase() {
+        base.registerAll(Arrays.asList(command("perm", "add <user> <node>")));
+        assertEquals(1, base.registerAll(Arrays.asList(command("Perm", "add <a> <b>"))).size());
+    }
+
+    @Test
+    void removedSignaturesCanBeRegisteredAgain() {
+        Command first = command("perm", "add <user> <node>");
+        base.registerAll(Arrays.asList(first));
+        base.removeCommand(first);
+        Command again = command("perm", "add <user> <node>");
+        assertTrue(base.registerAll(Arrays.asList(again)).isEmpty());
+        assertSame(again, base.getCommand("perm").get(0));
+    }
+}
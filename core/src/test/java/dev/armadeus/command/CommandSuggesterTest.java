@@ -0,0 +1,94 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandSuggesterTest {
+
+    private final CommandBase base = new CommandBase();
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    private static Command command(String name) {
+        return new Command(name, "", "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+    }
+
+    private static String random(Random random) {
+        char[] chars = new char[random.nextInt(7)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    void countsTranspositionsAsOneEdit() {
+        assertEquals(1, CommandSuggester.distance("pnig", "ping"));
+        assertEquals(1, CommandSuggester.distance("ab", "ba"));
+        assertEquals(2, CommandSuggester.distance("ca", "abc"));
+        assertEquals(3, CommandSuggester.distance("kitten", "sitting"));
+        assertEquals(4, CommandSuggester.distance("", "ping"));
+    }
+
+    @Test
+    void distanceIsAMetric() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            String a = random(random);
+            String b = random(random);
+            String c = random(random);
+            int ab = CommandSuggester.distance(a, b);
+            assertEquals(ab, CommandSuggester.distance(b, a));
+            assertTrue(CommandSuggester.distance(a, c) <= ab + CommandSuggester.distance(b, c), () -> a + " " + b + " " + c);
+        }
+    }
+
+    @Test
+    void suggestsTransposedShortLabels() {
+        base.registerAll(List.of(command("ping"), command("help")));
+        assertEquals(List.of("ping"), base.suggest("pnig"));
+    }
+
+    @Test
+    void findsWhatAFullScanFinds() {
+        Random random = new Random(11);
+        TreeSet<String> labels = new TreeSet<>();
+        while (labels.size() < 300) {
+            String label = random(random);
+            if (!label.isEmpty())
+                labels.add(label);
+        }
+        List<Command> commands = new ArrayList<>();
+        for (String label : labels) {
+            commands.add(command(label));
+        }
+        base.registerAll(commands);
+        CommandSuggester suggester = base.getSuggester();
+        for (int i = 0; i < 500; i++) {
+            String probe = random(random);
+            TreeSet<String> expected = new TreeSet<>();
+            for (String label : labels) {
+                if (CommandSuggester.distance(label, probe) <= 2)
+                    expected.add(label);
+            }
+            assertEquals(expected, new TreeSet<>(suggester.suggest(probe, 2, Integer.MAX_VALUE)), probe);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package dev.armadeus.command;
+
+import dev.armadeus.command.command.Cmd;
+import dev.armadeus.command.command.CmdAttribute;
+import dev.armadeus.command.execution.BoundedExecutionStrategy;
+import dev.armadeus.command.execution.RejectionPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandTimeoutTest {
+
+    private static final CommandSender SENDER = new CommandSender() {
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public String getName() {
+            return "tester";
+        }
+
+        @Override
+        public Future<CommandResult> runCommand(String command, String[] args) {
+            return null;
+        }
+    };
+
+    private CommandBase base;
+    private Handlers handlers;
+
+    @BeforeEach
+    void setUp() {
+        base = new CommandBase(new BoundedExecutionStrategy("Test", 1, 16, RejectionPolicy.ABORT));
+        base.setDefaultTimeout(Duration.ofMillis(50));
+        handlers = new Handlers();
+        base.registerCommands(handlers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        base.shutdown();
+    }
+
+    @Test
+    void interruptsHangingHandler() throws Exception {
+        long start = System.nanoTime();
+        assertEquals(CommandResult.TIMEOUT, base.executeAsync(SENDER, "hang", new String[0]).get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(handlers.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completesWithoutWaitingForStubbornHandler() throws Exception {
+        long start = System.nanoTime();
+        assertEquals(CommandResult.TIMEOUT, base.executeAsync(SENDER, "stubborn", new String[0]).get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(SENDER, "check", new String[0]).get(5, TimeUnit.SECONDS));
+        assertFalse(handlers.leaked.get(), "interrupt leaked into the next task of the worker");
+    }
+
+    @Test
+    void completesOffTheTimerThread() throws Exception {
+        CompletableFuture<String> completedOn = base.executeAsync(SENDER, "hang", new String[0]).thenApply(result -> Thread.currentThread().getName());
+        assertNotEquals("CommandTimer", completedOn.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void commandTimeoutOverridesDefault() throws Exception {
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(SENDER, "slow", new String[0]).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void inlineRunsAreNeverInterrupted() {
+        assertEquals(CommandResult.SUCCESS, base.executeInline(SENDER, "nap", new String[0]));
+    }
+
+    @Test
+    void throttledCallsDoNotRun() throws Exception {
+        assertEquals(CommandResult.SUCCESS, base.executeAsync(SENDER, "limited", new String[0]).get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.THROTTLED, base.executeAsync(SENDER, "limited", new String[0]).get(5, TimeUnit.SECONDS));
+        assertTrue(handlers.limited.get());
+    }
+
+    public static class Handlers {
+
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final AtomicBoolean leaked = new AtomicBoolean();
+        private final AtomicBoolean limited = new AtomicBoolean();
+
+        @Cmd(name = "hang", format = "", description = "")
+        public void hang(CommandSender sender) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }
+
+        @Cmd(name = "stubborn", format = "", description = "")
+        public void stubborn(CommandSender sender) {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(400);
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Cmd(name = "check", format = "", description = "")
+        public void check(CommandSender sender) {
+            leaked.set(Thread.currentThread().isInterrupted());
+        }
+
+        @Cmd(name = "slow", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.TIMEOUT, value = "0")
+        public void slow(CommandSender sender) throws InterruptedException {
+            Thread.sleep(150);
+        }
+
+        @Cmd(name = "nap", format = "", description = "")
+        public void nap(CommandSender sender) throws InterruptedException {
+            Thread.sleep(150);
+        }
+
+        @Cmd(name = "limited", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.COOLDOWN, value = "1m")
+        public void limited(CommandSender sender) {
+            if (!limited.compareAndSet(false, true))
+                throw new IllegalStateException("ran twice");
+        }
+    }
+}
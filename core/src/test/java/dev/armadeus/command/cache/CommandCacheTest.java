@@ -0,0 +1,111 @@
+package dev.armadeus.command.cache;
+
+import dev.armadeus.command.CommandFlags;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.command.Command;
+import dev.armadeus.command.command.CommandArguments;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CommandCacheTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static Command command(String name) {
+        return new Command(name, "<a> [b]", "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+    }
+
+    private static CommandFlags flags(String... pairs) {
+        CommandFlags flags = new CommandFlags();
+        for (int i = 0; i < pairs.length; i += 2) {
+            flags.put(pairs[i], pairs[i + 1]);
+        }
+        return flags;
+    }
+
+    @Test
+    void keysIgnoreFlagOrder() {
+        Command command = command("info");
+        CacheKey ab = new CacheKey(command, null, command.processArgs(new String[]{"x"}), flags("a", "1", "b", null));
+        CacheKey ba = new CacheKey(command, null, command.processArgs(new String[]{"x"}), flags("b", null, "a", "1"));
+        assertEquals(ab, ba);
+        assertEquals(ab.hashCode(), ba.hashCode());
+        assertEquals("x", ab.getArg("a"));
+        assertEquals("1", ab.getFlag("a"));
+        assertNotEquals(ab, new CacheKey(command, null, command.processArgs(new String[]{"x", "y"}), flags("a", "1", "b", null)));
+        assertNotEquals(ab, new CacheKey(command, "sender", command.processArgs(new String[]{"x"}), flags("a", "1", "b", null)));
+    }
+
+    @Test
+    void keysAreNotAffectedByHandlerWrites() {
+        Command command = command("info");
+        CommandArguments args = command.processArgs(new String[]{"x"});
+        CacheKey key = new CacheKey(command, null, args, flags());
+        args.put("a", "changed");
+        assertEquals(key, new CacheKey(command, null, command.processArgs(new String[]{"x"}), flags()));
+    }
+
+    @Test
+    void expiresEntries() {
+        CommandCache cache = new CommandCache();
+        Command command = command("info");
+        CacheKey key = new CacheKey(command, null, command.processArgs(new String[]{"x"}), flags());
+        cache.put(key, List.of("hi"), SECOND, 0);
+        assertEquals(List.of("hi"), cache.get(key, SECOND - 1));
+        assertNull(cache.get(key, SECOND));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOfTheGrowingCommand() {
+        CommandCache cache = new CommandCache(3);
+        Command first = command("first");
+        Command second = command("second");
+        CacheKey a = new CacheKey(first, null, first.processArgs(new String[]{"a"}), flags());
+        CacheKey b = new CacheKey(first, null, first.processArgs(new String[]{"b"}), flags());
+        CacheKey c = new CacheKey(second, null, second.processArgs(new String[]{"c"}), flags());
+        CacheKey d = new CacheKey(first, null, first.processArgs(new String[]{"d"}), flags());
+        cache.put(a, List.of("a"), SECOND, 0);
+        cache.put(b, List.of("b"), SECOND, 0);
+        cache.put(c, List.of("c"), SECOND, 0);
+        cache.get(a, 0);
+        cache.put(d, List.of("d"), SECOND, 0);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(b, 0));
+        assertNotNull(cache.get(a, 0));
+        assertNotNull(cache.get(c, 0));
+        assertNotNull(cache.get(d, 0));
+    }
+
+    @Test
+    void invalidatesPerCommand() {
+        CommandCache cache = new CommandCache();
+        Command first = command("first");
+        Command second = command("second");
+        CacheKey a = new CacheKey(first, null, first.processArgs(new String[]{"a"}), flags());
+        CacheKey b = new CacheKey(second, null, second.processArgs(new String[]{"b"}), flags());
+        cache.put(a, List.of("a"), SECOND, 0);
+        cache.put(b, List.of("b"), SECOND, 0);
+        cache.invalidate(first);
+        assertEquals(1, cache.size());
+        assertNull(cache.get(a, 0));
+        cache.put(a, List.of("a"), SECOND, 0);
+        cache.invalidateIf(key -> "b".equals(key.getArg("a")));
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(a, 0));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,76 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.CommandBase;
+import dev.armadeus.command.CommandCreationException;
+import dev.armadeus.command.CommandSender;
+import dev.armadeus.command.execution.CommandPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandAttributeTest {
+
+    private static Command command() {
+        return new Command("ping", "", "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+    }
+
+    @Test
+    void parsesKnownAttributes() {
+        Command command = command();
+        command.setAttribute(CmdAttribute.TIMEOUT, "5s");
+        command.setAttribute(CmdAttribute.CACHE, "1m");
+        command.setAttribute(CmdAttribute.PRIORITY, "high");
+        assertEquals(TimeUnit.SECONDS.toNanos(5), command.getTimeoutNanos());
+        assertEquals(TimeUnit.MINUTES.toNanos(1), command.getCacheTtlNanos());
+        assertEquals(CommandPriority.HIGH, command.getPriority());
+    }
+
+    @Test
+    void malformedValuesNameTheAttribute() {
+        String[][] cases = {
+                {CmdAttribute.RATE_LIMIT, "x/1s"},
+                {CmdAttribute.GLOBAL_RATE_LIMIT, "0/1s"},
+                {CmdAttribute.COOLDOWN, "soon"},
+                {CmdAttribute.CACHE, "5 parsecs"},
+                {CmdAttribute.TIMEOUT, ""},
+                {CmdAttribute.PRIORITY, "urgent"}
+        };
+        for (String[] c : cases) {
+            Command command = command();
+            CommandCreationException e = assertThrows(CommandCreationException.class, () -> command.setAttribute(c[0], c[1]));
+            assertTrue(e.getMessage().contains(c[0]), e.getMessage());
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            assertFalse(command.getAttributes().containsKey(c[0]));
+        }
+    }
+
+    @Test
+    void malformedAnnotationFailsRegistration() {
+        CommandBase base = new CommandBase();
+        try {
+            CommandCreationException e = assertThrows(CommandCreationException.class, () -> base.registerCommands(new Handlers()));
+            assertTrue(e.getMessage().contains(CmdAttribute.TIMEOUT), e.getMessage());
+            assertTrue(base.getCommand("slow") == null || base.getCommand("slow").isEmpty());
+        } finally {
+            base.shutdown();
+        }
+    }
+
+    public static class Handlers {
+
+        @Cmd(name = "slow", format = "", description = "")
+        @CmdAttribute(name = CmdAttribute.TIMEOUT, value = "forever")
+        public void slow(CommandSender sender) {
+        }
+    }
+}
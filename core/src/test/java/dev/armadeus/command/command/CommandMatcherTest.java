@@ -0,0 +1,81 @@
+package dev.armadeus.command.command;
+
+import dev.armadeus.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CommandMatcherTest {
+
+    private static final String[] FORMATS = {
+            "", "add", "remove", "<a>", "[o]", "{r}", "(or)",
+            "add <a>", "add [o]", "add {r}", "<a> <b>", "<a> [o]", "<a> {r}", "<a> (or)", "remove <a>",
+            "add <a> <b>", "<a> add", "<a> <b> [o]", "<a> <b> {r}", "add remove (or)"
+    };
+    private static final String[] TOKENS = {"add", "remove", "x", "y"};
+
+    private static Command command(String format) {
+        return new Command("perm", format, "") {
+            @Override
+            public void run(CommandSender sender, Map<String, String> args, Map<String, String> flags) {
+            }
+        };
+    }
+
+    /**
+     * The order the regex patterns were tried in before the trie: first registered overload whose pattern matches.
+     */
+    private static Command regexMatch(List<Command> overloads, String[] args) {
+        String joined = String.join(" ", args);
+        for (Command command : overloads) {
+            if (command.getCommandFormat().getPattern().matcher(joined).find())
+                return command;
+        }
+        return null;
+    }
+
+    @Test
+    void matchesLikeRegexOrder() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            List<Command> overloads = new ArrayList<>();
+            int size = 1 + random.nextInt(5);
+            for (int i = 0; i < size; i++) {
+                overloads.add(command(FORMATS[random.nextInt(FORMATS.length)]));
+            }
+            CommandMatcher matcher = CommandMatcher.compile(overloads);
+            for (int probe = 0; probe < 20; probe++) {
+                String[] args = new String[random.nextInt(5)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = TOKENS[random.nextInt(TOKENS.length)];
+                }
+                assertSame(regexMatch(overloads, args), matcher.match(args), () -> overloads.stream().map(Command::getFormat).reduce((a, b) -> a + " | " + b).orElse("") + " with " + Arrays.toString(args));
+            }
+        }
+    }
+
+    @Test
+    void earliestOverloadWins() {
+        Command dynamic = command("<user> <node>");
+        Command literal = command("add <node>");
+        assertSame(dynamic, CommandMatcher.compile(Arrays.asList(dynamic, literal)).match(new String[]{"add", "x"}));
+        assertSame(literal, CommandMatcher.compile(Arrays.asList(literal, dynamic)).match(new String[]{"add", "x"}));
+    }
+
+    @Test
+    void restRequiresAToken() {
+        Command rest = command("{r}");
+        CommandMatcher matcher = CommandMatcher.compile(Arrays.asList(rest));
+        assertNull(matcher.match(new String[0]));
+        assertSame(rest, matcher.match(new String[]{"a", "b", "c"}));
+        assertEquals(1, matcher.getCommands().length);
+    }
+}
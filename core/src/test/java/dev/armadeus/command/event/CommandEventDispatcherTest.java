@@ -0,0 +1,83 @@
+package dev.armadeus.command.event;
+
+import dev.armadeus.command.CommandResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CommandEventDispatcherTest {
+
+    private static CommandPostProcessEvent event() {
+        return new CommandPostProcessEvent(null, null, Collections.emptyMap(), Collections.emptyMap(), CommandResult.SUCCESS);
+    }
+
+    @Test
+    void togglingAsyncWhileFiringLosesNoEvents() throws Exception {
+        CommandEventDispatcher dispatcher = new CommandEventDispatcher();
+        AtomicInteger delivered = new AtomicInteger();
+        dispatcher.register(new CommandEventListener() {
+            @Override
+            public void onCommandPostProcess(CommandPostProcessEvent event) {
+                delivered.incrementAndGet();
+            }
+        });
+
+        int threads = 4;
+        int perThread = 20_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        dispatcher.firePostProcess(event());
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            dispatcher.setAsync(true);
+            dispatcher.setAsync(false);
+        }
+        done.await();
+        dispatcher.setAsync(true);
+        dispatcher.shutdown();
+
+        assertNull(failure.get());
+        // Executors swapped out drain on their own threads, give them a moment
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (delivered.get() < threads * perThread && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(threads * perThread, delivered.get());
+    }
+
+    @Test
+    void rejectedEventsAreDeliveredOnTheFiringThread() {
+        CommandEventDispatcher dispatcher = new CommandEventDispatcher();
+        AtomicReference<Thread> deliveredOn = new AtomicReference<>();
+        dispatcher.register(new CommandEventListener() {
+            @Override
+            public void onCommandPostProcess(CommandPostProcessEvent event) {
+                deliveredOn.set(Thread.currentThread());
+            }
+        });
+        dispatcher.setAsyncExecutor(task -> {
+            throw new RejectedExecutionException();
+        });
+
+        dispatcher.firePostProcess(event());
+        assertEquals(Thread.currentThread(), deliveredOn.get());
+    }
+}
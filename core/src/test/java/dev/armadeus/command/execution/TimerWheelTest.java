@@ -0,0 +1,55 @@
+package dev.armadeus.command.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private final TimerWheel timer = new TimerWheel("TestTimer", 1, TimeUnit.MILLISECONDS, 4);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void neverFiresEarly() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicLong at = new AtomicLong();
+        long start = System.nanoTime();
+        timer.schedule(() -> {
+            at.set(System.nanoTime());
+            fired.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(at.get() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    void cancelledTasksDoNotRun() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        TimerWheel.Timeout timeout = timer.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        CountDownLatch later = new CountDownLatch(1);
+        timer.schedule(later::countDown, 40, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void rejectsAfterStop() {
+        timer.stop();
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> {
+        }, 1, TimeUnit.MILLISECONDS));
+    }
+}
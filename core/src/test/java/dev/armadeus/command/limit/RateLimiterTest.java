@@ -0,0 +1,74 @@
+package dev.armadeus.command.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenWaitsOneInterval() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(3, Duration.ofSeconds(3)));
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", now));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("a", now));
+        assertEquals(SECOND / 2, limiter.tryAcquire("a", now + SECOND / 2));
+        assertEquals(0, limiter.tryAcquire("a", now + SECOND));
+        assertTrue(limiter.tryAcquire("a", now + SECOND) > 0);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofSeconds(1)));
+        long now = 5 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+        assertEquals(0, limiter.tryAcquire("b", now));
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanTheBurst() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(2, Duration.ofSeconds(2)));
+        long now = 10 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", now));
+        long later = now + 3600 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertEquals(SECOND, limiter.tryAcquire("a", later));
+    }
+
+    @Test
+    void refundGivesBackAPermit() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofSeconds(1)));
+        long now = 20 * SECOND;
+        assertEquals(0, limiter.tryAcquire("a", now));
+        limiter.refund("a");
+        assertEquals(0, limiter.tryAcquire("a", now));
+    }
+
+    @Test
+    void nanoTimeWrapAround() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofSeconds(1)));
+        long now = Long.MAX_VALUE - SECOND / 2;
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now + SECOND / 4) > 0);
+        assertEquals(0, limiter.tryAcquire("a", now + SECOND));
+    }
+
+    @Test
+    void parsesLimits() {
+        RateLimit limit = RateLimit.parse("3/10s");
+        assertEquals(3, limit.getPermits());
+        assertEquals(10 * SECOND, limit.getPeriodNanos());
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("x/1s"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("0/1s"));
+    }
+}
@@ -0,0 +1,456 @@
+package dev.armadeus.command.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates {@code @Cmd} methods at compile time and generates a {@code <Holder>_CommandRegistrar} for every class
+ * declaring them. The registrar builds the commands with direct calls into the holder, so registering it needs no
+ * method scanning, annotation reads or method handles at runtime.
+ * <p>
+ * Holders that cannot be named from their package, generic holders, and subclasses inheriting all of their
+ * {@code @Cmd} methods get no registrar and keep using the reflective path of the command base.
+ */
+public class CommandProcessor extends AbstractProcessor {
+
+    private static final String PACKAGE = "dev.armadeus.command.command";
+    private static final String CMD = PACKAGE + ".Cmd";
+    private static final String CMD_ATTRIBUTE = PACKAGE + ".CmdAttribute";
+    private static final String CMD_ATTRIBUTES = PACKAGE + ".CmdAttributes";
+    private static final String ARG = PACKAGE + ".Arg";
+    private static final String FLAG = PACKAGE + ".Flag";
+    private static final String SENDER = "dev.armadeus.command.CommandSender";
+    private static final String SUFFIX = "_CommandRegistrar";
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+    private Filer filer;
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
+        filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(CMD);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement cmd = elements.getTypeElement(CMD);
+        if (cmd == null)
+            return false;
+
+        Set<TypeElement> holders = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(cmd)) {
+            if (element.getKind() != ElementKind.METHOD)
+                continue;
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "@Cmd method is not public and will be ignored.", element);
+                continue;
+            }
+            holders.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement holder : holders) {
+            List<CommandModel> models = new ArrayList<>();
+            boolean valid = true;
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(holder))) {
+                AnnotationMirror annotation = find(method, CMD);
+                if (annotation == null || !method.getModifiers().contains(Modifier.PUBLIC))
+                    continue;
+                CommandModel model = validate(method, annotation);
+                if (model == null)
+                    valid = false;
+                else
+                    models.add(model);
+            }
+            if (!valid || holder.getModifiers().contains(Modifier.ABSTRACT) || !canGenerate(holder))
+                continue;
+            String name = registrarName(holder);
+            if (!generated.add(name))
+                continue;
+            try {
+                write(holder, name, models);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + name + ": " + e.getMessage(), holder);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holders must be reachable by name from their own package and declare no type parameters.
+     */
+    private boolean canGenerate(TypeElement holder) {
+        Element element = holder;
+        while (element instanceof TypeElement) {
+            TypeElement type = (TypeElement) element;
+            if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER)
+                return false;
+            if (type.getModifiers().contains(Modifier.PRIVATE) || !type.getTypeParameters().isEmpty()) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "No registrar generated for " + holder.getQualifiedName() + ", it will be registered reflectively.", holder);
+                return false;
+            }
+            element = type.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private static String registrarName(TypeElement holder) {
+        StringBuilder sb = new StringBuilder(holder.getSimpleName());
+        Element element = holder.getEnclosingElement();
+        while (element instanceof TypeElement) {
+            sb.insert(0, '_').insert(0, element.getSimpleName());
+            element = element.getEnclosingElement();
+        }
+        return sb.append(SUFFIX).toString();
+    }
+
+    /**
+     * Checks a method against the same rules the annotated command applies at registration.
+     *
+     * @return the model or null if errors were reported
+     */
+    private CommandModel validate(ExecutableElement method, AnnotationMirror annotation) {
+        CommandModel model = new CommandModel(method);
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = elements.getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            String key = entry.getKey().getSimpleName().toString();
+            switch (key) {
+                case "name":
+                    model.name = (String) entry.getValue().getValue();
+                    break;
+                case "format":
+                    model.format = (String) entry.getValue().getValue();
+                    break;
+                case "description":
+                    model.description = (String) entry.getValue().getValue();
+                    break;
+                case "aliases":
+                    model.aliases = strings(entry.getValue());
+                    break;
+                case "flags":
+                    model.flags = strings(entry.getValue());
+                    break;
+            }
+        }
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            String type = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (type.equals(CMD_ATTRIBUTE)) {
+                model.attributes.add(attribute(mirror));
+            } else if (type.equals(CMD_ATTRIBUTES)) {
+                for (AnnotationValue value : values(mirror, "value")) {
+                    model.attributes.add(attribute((AnnotationMirror) value.getValue()));
+                }
+            }
+        }
+
+        List<String> arguments = new ArrayList<>();
+        if (!parseFormat(method, model, arguments))
+            return null;
+        Set<String> flagNames = flagNames(model.flags);
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (parameters.isEmpty() || !isType(parameters.get(0).asType(), SENDER)) {
+            error(method, "Parameter[0] was not CommandSender.");
+            return null;
+        }
+
+        boolean typed = false;
+        for (VariableElement parameter : parameters) {
+            if (find(parameter, ARG) != null || find(parameter, FLAG) != null)
+                typed = true;
+        }
+        model.typed = typed;
+
+        if (!typed) {
+            if (parameters.size() > 4) {
+                error(method, "Invalid number of parameters.");
+                return null;
+            }
+            TypeMirror map = stringMap();
+            for (int i = 1; i < parameters.size(); i++) {
+                if (!types.isSameType(parameters.get(i).asType(), map)) {
+                    error(parameters.get(i), "Parameter[" + i + "] was not Map<String, String>.");
+                    return null;
+                }
+            }
+            model.arity = parameters.size();
+            return model;
+        }
+
+        boolean valid = true;
+        for (int i = 1; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            AnnotationMirror arg = find(parameter, ARG);
+            AnnotationMirror flag = find(parameter, FLAG);
+            if ((arg == null) == (flag == null)) {
+                error(parameter, "Parameter[" + i + "] must be annotated with either @Arg or @Flag.");
+                valid = false;
+                continue;
+            }
+            String name = (String) value(arg != null ? arg : flag, "value");
+            if (name.isEmpty())
+                name = parameter.getSimpleName().toString();
+            if (arg != null && !arguments.contains(name.toLowerCase())) {
+                error(parameter, "Parameter[" + i + "] binds to unknown argument " + name + ".");
+                valid = false;
+            } else if (flag != null && !flagNames.contains(name)) {
+                error(parameter, "Parameter[" + i + "] binds to unknown flag " + name + ".");
+                valid = false;
+            }
+            model.names.add(name);
+            model.flagged.add(flag != null);
+            model.types.add(types.erasure(parameter.asType()));
+        }
+        return valid ? model : null;
+    }
+
+    private boolean parseFormat(ExecutableElement method, CommandModel model, List<String> arguments) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : model.format.split(" ")) {
+            if (!token.isEmpty())
+                tokens.add(token);
+        }
+        if (!tokens.isEmpty() && tokens.get(0).equals(model.name))
+            tokens.remove(0);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            char open = token.charAt(0);
+            char close = token.charAt(token.length() - 1);
+            boolean last = i == tokens.size() - 1;
+            if (open == '<' && close == '>') {
+                arguments.add(token.substring(1, token.length() - 1).toLowerCase());
+            } else if ((open == '[' && close == ']') || (open == '{' && close == '}') || (open == '(' && close == ')')) {
+                if (!last) {
+                    error(method, open + "" + close + " statements can only be at the end of the format.");
+                    return false;
+                }
+                arguments.add(token.substring(1, token.length() - 1).toLowerCase());
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> flagNames(List<String> flags) {
+        Set<String> names = new HashSet<>();
+        for (String flag : flags) {
+            if (flag.matches("^-\\w+$")) {
+                for (char c : flag.substring(1).toCharArray()) {
+                    names.add(String.valueOf(c));
+                }
+            } else if (flag.matches("^--\\w+$")) {
+                names.add(flag.substring(2));
+            } else if (flag.matches("^--\\w+=\\S+$")) {
+                names.add(flag.substring(2, flag.indexOf('=')));
+            }
+        }
+        return names;
+    }
+
+    private void write(TypeElement holder, String name, List<CommandModel> models) throws IOException {
+        PackageElement pkg = elements.getPackageOf(holder);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String holderType = holder.getQualifiedName().toString();
+        String qualified = packageName.isEmpty() ? name : packageName + "." + name;
+
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty())
+            sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(CommandProcessor.class.getName()).append("\")\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(name).append(" implements ").append(PACKAGE).append(".CommandRegistrar<").append(holderType).append("> {\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public java.util.List<").append(PACKAGE).append(".Command> createCommands(").append(holderType)
+                .append(" holder, dev.armadeus.command.argument.ArgumentConverters converters) {\n");
+        sb.append("        java.util.List<").append(PACKAGE).append(".Command> commands = new java.util.ArrayList<>(").append(models.size()).append(");\n");
+        sb.append("        ").append(PACKAGE).append(".AnnotatedCommand command;\n");
+        for (CommandModel model : models) {
+            sb.append('\n');
+            writeCommand(sb, holderType, model);
+        }
+        sb.append("        return commands;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        try (Writer writer = filer.createSourceFile(qualified, holder).openWriter()) {
+            writer.write(sb.toString());
+        }
+    }
+
+    private void writeCommand(StringBuilder sb, String holderType, CommandModel model) {
+        String target = model.method.getModifiers().contains(Modifier.STATIC) ? holderType : "holder";
+        String call = target + "." + model.method.getSimpleName();
+        sb.append("        command = new ").append(PACKAGE).append(".AnnotatedCommand(")
+                .append(literal(model.name)).append(", ")
+                .append(literal(model.format)).append(", ")
+                .append(literal(model.description)).append(", ")
+                .append(array(model.aliases)).append(", ")
+                .append(array(model.flags)).append(", c -> ");
+        if (!model.typed) {
+            String[] params = {"sender", "args", "flags", "(java.util.Map) attributes"};
+            sb.append("(sender, args, flags, attributes) -> ").append(call).append('(');
+            for (int i = 0; i < model.arity; i++) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(params[i]);
+            }
+            sb.append("));\n");
+        } else {
+            sb.append("{\n");
+            sb.append("            ").append(PACKAGE).append(".ArgumentBinding binding = ").append(PACKAGE).append(".ArgumentBinding.compile(c, new String[]{");
+            for (int i = 0; i < model.names.size(); i++) {
+                sb.append(i > 0 ? ", " : "").append(literal(model.names.get(i)));
+            }
+            sb.append("}, new boolean[]{");
+            for (int i = 0; i < model.flagged.size(); i++) {
+                sb.append(i > 0 ? ", " : "").append(model.flagged.get(i));
+            }
+            sb.append("}, new Class<?>[]{");
+            for (int i = 0; i < model.types.size(); i++) {
+                sb.append(i > 0 ? ", " : "").append(model.types.get(i)).append(".class");
+            }
+            sb.append("}, converters);\n");
+            sb.append("            return (sender, args, flags, attributes) -> {\n");
+            sb.append("                Object[] values = binding.bind(sender, args, flags);\n");
+            sb.append("                ").append(call).append("(sender");
+            for (int i = 0; i < model.types.size(); i++) {
+                TypeMirror type = model.types.get(i);
+                String cast = type.getKind().isPrimitive() ? types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString() : type.toString();
+                sb.append(", (").append(cast).append(") values[").append(i + 1).append(']');
+            }
+            sb.append(");\n");
+            sb.append("            };\n");
+            sb.append("        });\n");
+        }
+        for (String[] attribute : model.attributes) {
+            sb.append("        command.setAttribute(").append(literal(attribute[0])).append(", ").append(literal(attribute[1])).append(");\n");
+        }
+        sb.append("        commands.add(command);\n");
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private String array(List<String> values) {
+        StringBuilder sb = new StringBuilder("new String[]{");
+        for (int i = 0; i < values.size(); i++) {
+            sb.append(i > 0 ? ", " : "").append(literal(values.get(i)));
+        }
+        return sb.append('}').toString();
+    }
+
+    private String[] attribute(AnnotationMirror mirror) {
+        return new String[]{(String) value(mirror, "name"), (String) value(mirror, "value")};
+    }
+
+    private TypeMirror stringMap() {
+        TypeElement map = elements.getTypeElement("java.util.Map");
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        return types.getDeclaredType(map, string, string);
+    }
+
+    private static boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private static AnnotationMirror find(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+                return mirror;
+        }
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> values(AnnotationMirror mirror, String name) {
+        Object value = value(mirror, name);
+        return value instanceof List ? (List<? extends AnnotationValue>) value : Collections.emptyList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> strings(AnnotationValue value) {
+        List<String> result = new ArrayList<>();
+        for (AnnotationValue element : (List<? extends AnnotationValue>) value.getValue()) {
+            result.add((String) element.getValue());
+        }
+        return result;
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class CommandModel {
+
+        private final ExecutableElement method;
+        private String name;
+        private String format;
+        private String description;
+        private List<String> aliases;
+        private List<String> flags;
+        private final List<String[]> attributes = new ArrayList<>();
+        private boolean typed;
+        private int arity;
+        private final List<String> names = new ArrayList<>();
+        private final List<Boolean> flagged = new ArrayList<>();
+        private final List<TypeMirror> types = new ArrayList<>();
+
+        private CommandModel(ExecutableElement method) {
+            this.method = method;
+        }
+    }
+}